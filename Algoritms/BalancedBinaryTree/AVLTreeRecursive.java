@@ -205,7 +205,7 @@ public class AVLTreeRecursive<T extends Comparable<T>> implements Iterable<T> {
 			// dig into right subtree, the value we're looking
 			// for is greater than the current value
 		} else if (cmp > 0) {
-			node.left = remove(node.left, elem);
+			node.right = remove(node.right, elem);
 
 			// found the node we wish to remove
 		} else {
@@ -0,0 +1,143 @@
+package FenwickTtree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// a thread safe version of FenwickTreeRangeQueryPointUpdate for counters updated from many
+// threads at once.
+//
+// every node is updated with an atomic getAndAdd and read with a volatile get, so neither
+// writers nor readers ever lock. A read is weakly consistent: it sees every update that
+// completed before it started, but an update running concurrently may be seen on some of the
+// nodes the read visits and not on others, just like the sum of a LongAdder.
+//
+// all the updates of a plain tree go through the few nodes near the root (the indexes that
+// are large powers of two), so with many writers those cache lines bounce between the cores.
+// With 'stripes' > 1 the tree is split into that many independent trees, a thread always
+// updates the same one and a read merges them all: writes stop contending at the price of
+// reads getting 'stripes' times slower.
+public class ConcurrentFenwickTree {
+
+	// the size of the arrays holding the Fenwick tree values, index 0 is unused
+	final int N;
+
+	// one tree per stripe, a power of two of them
+	private final AtomicLongArray[] trees;
+
+	// create an empty Fenwick Tree with 'sz' parameter zero base, with a single stripe
+	public ConcurrentFenwickTree(int sz) {
+		this(sz, 1);
+	}
+
+	// designated constructor, 'stripes' is rounded up to a power of two
+	public ConcurrentFenwickTree(int sz, int stripes) {
+		if (sz < 0)
+			throw new IllegalArgumentException("Illegal size");
+		if (stripes <= 0 || stripes > 1 << 16)
+			throw new IllegalArgumentException("Illegal number of stripes");
+
+		N = sz + 1;
+		trees = new AtomicLongArray[stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+		for (int s = 0; s < trees.length; s++)
+			trees[s] = new AtomicLongArray(N);
+	}
+
+	// construct a fenwick tree with an initial set of values, the 'values' array MUST BE
+	// ONE BASED meaning values[0] does not used. All the values go to the first stripe
+	public ConcurrentFenwickTree(long[] values, int stripes) {
+		this(checkValues(values).length - 1, stripes);
+
+		long[] tree = values.clone();
+		tree[0] = 0L;
+		for (int i = 1; i < N; i++) {
+			int parent = i + lsb(i);
+			if (parent < N)
+				tree[parent] += tree[i];
+		}
+		// the tree is not shared yet, the final field makes these writes visible
+		for (int i = 1; i < N; i++)
+			trees[0].lazySet(i, tree[i]);
+	}
+
+	private static long[] checkValues(long[] values) {
+		if (values == null || values.length == 0)
+			throw new IllegalArgumentException("values array cannot be null or empty");
+		return values;
+	}
+
+	private static int lsb(int i) {
+		return i & -i;
+	}
+
+	// the stripe of the calling thread, spread from its id so that consecutive ids land on
+	// different stripes
+	private AtomicLongArray stripe() {
+		if (trees.length == 1)
+			return trees[0];
+		int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+		return trees[(h ^ (h >>> 16)) & (trees.length - 1)];
+	}
+
+	// the number of stripes the tree is split into
+	public int stripes() {
+		return trees.length;
+	}
+
+	// add 'v' to index 'i', O(log(n))
+	public void add(int i, long v) {
+		if (i < 1 || i >= N)
+			throw new IllegalArgumentException("index out of range: " + i);
+		AtomicLongArray tree = stripe();
+		for (; i < N; i += lsb(i))
+			tree.getAndAdd(i, v);
+	}
+
+	// computes the prefix sum from [1, i], O(stripes * log(n))
+	public long prefixSum(int i) {
+		if (i < 0 || i >= N)
+			throw new IllegalArgumentException("index out of range: " + i);
+		long sum = 0L;
+		for (AtomicLongArray tree : trees)
+			for (int j = i; j != 0; j &= ~lsb(j))
+				sum += tree.get(j);
+		return sum;
+	}
+
+	// returns the sum of the interval [left, right], O(stripes * log(n)). Like in
+	// FenwickTreeRangeQueryPointUpdate both walks stop at the node where they meet
+	public long sum(int left, int right) {
+		if (right < left)
+			throw new IllegalArgumentException("Make sure right >= left");
+		if (left < 1 || right >= N)
+			throw new IllegalArgumentException("index out of range");
+		final int stop = right & ~((Integer.highestOneBit(right ^ (left - 1)) << 1) - 1);
+		long sum = 0L;
+		for (AtomicLongArray tree : trees) {
+			for (int i = right; i > stop; i &= ~lsb(i))
+				sum += tree.get(i);
+			for (int j = left - 1; j > stop; j &= ~lsb(j))
+				sum -= tree.get(j);
+		}
+		return sum;
+	}
+
+	// get the value at index i
+	public long get(int i) {
+		return sum(i, i);
+	}
+
+	// the sum of all the values
+	public long total() {
+		return prefixSum(N - 1);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 1; i < N; i++) {
+			if (i > 1)
+				sb.append(", ");
+			sb.append(get(i));
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,104 @@
+package FenwickTtree;
+
+// a two dimensional Fenwick tree supporting point updates and sum queries over rectangles.
+// Node (r, c) covers the rows (r - lsb(r), r] and the columns (c - lsb(c), c], a query or
+// an update walks the rows like the one dimensional tree and every row like one too.
+//
+// the nodes are stored row by row in one flat array rather than a long[][], so a row
+// walk reads consecutive memory and there is no array of rows to go through first.
+public class FenwickTree2D {
+
+	// the number of rows and columns of the tree, row 0 and column 0 are not used
+	final int ROWS, COLS;
+
+	// node (r, c) is at tree[r * COLS + c]
+	private long[] tree;
+
+	// create an empty Fenwick tree with 'rows' x 'cols' cells, zero based
+	public FenwickTree2D(int rows, int cols) {
+		if (rows < 0 || cols < 0)
+			throw new IllegalArgumentException("Illegal size: " + rows + " x " + cols);
+		ROWS = rows + 1;
+		COLS = cols + 1;
+		tree = new long[Math.multiplyExact(ROWS, COLS)];
+	}
+
+	// Construct a fenwick tree with an initial grid of values. The 'values' grid
+	// MUST BE ONE BASED in both dimensions, meaning row 0 and column 0 do not get
+	// used, and every row must be as long as the first one. O(rows * cols) construction
+	public FenwickTree2D(long[][] values) {
+		if (values == null || values.length == 0 || values[0] == null)
+			throw new IllegalArgumentException("values grid cannot be null or empty");
+
+		ROWS = values.length;
+		COLS = values[0].length;
+		tree = new long[Math.multiplyExact(ROWS, COLS)];
+
+		for (int r = 1; r < ROWS; r++) {
+			if (values[r] == null || values[r].length != COLS)
+				throw new IllegalArgumentException("values grid must be rectangular");
+			System.arraycopy(values[r], 1, tree, r * COLS + 1, COLS - 1);
+		}
+
+		// the one dimensional construction along every row, then along every column
+		for (int r = 1; r < ROWS; r++) {
+			final int row = r * COLS;
+			for (int c = 1; c < COLS; c++) {
+				int parent = c + lsb(c);
+				if (parent < COLS)
+					tree[row + parent] += tree[row + c];
+			}
+		}
+		for (int r = 1; r < ROWS; r++) {
+			int parent = r + lsb(r);
+			if (parent < ROWS) {
+				final int row = r * COLS, parentRow = parent * COLS;
+				for (int c = 1; c < COLS; c++)
+					tree[parentRow + c] += tree[row + c];
+			}
+		}
+	}
+
+	// this returns the value of the least significant bit(LSB)
+	private static int lsb(int i) {
+		// isolates the lowest one bit value
+		return i & -i;
+	}
+
+	// computes the sum of the rectangle [1, r] x [1, c], O(log(rows) * log(cols))
+	private long prefixSum(int r, int c) {
+		long sum = 0L;
+		for (; r != 0; r &= ~lsb(r)) {
+			final int row = r * COLS;
+			for (int j = c; j != 0; j &= ~lsb(j))
+				sum += tree[row + j];
+		}
+		return sum;
+	}
+
+	// returns the sum of the rectangle [r1, r2] x [c1, c2], O(log(rows) * log(cols))
+	public long sum(int r1, int c1, int r2, int c2) {
+		if (r2 < r1 || c2 < c1)
+			throw new IllegalArgumentException("Make sure r2 >= r1 and c2 >= c1");
+		return prefixSum(r2, c2) - prefixSum(r1 - 1, c2) - prefixSum(r2, c1 - 1) + prefixSum(r1 - 1, c1 - 1);
+	}
+
+	// get the value of the cell (r, c)
+	public long get(int r, int c) {
+		return sum(r, c, r, c);
+	}
+
+	// add 'v' to the cell (r, c), O(log(rows) * log(cols))
+	public void add(int r, int c, long v) {
+		for (; r < ROWS; r += lsb(r)) {
+			final int row = r * COLS;
+			for (int j = c; j < COLS; j += lsb(j))
+				tree[row + j] += v;
+		}
+	}
+
+	// set the cell (r, c) to be equal to v, O(log(rows) * log(cols))
+	public void set(int r, int c, long v) {
+		add(r, c, v - get(r, c));
+	}
+}
@@ -1,6 +1,8 @@
 package FenwickTtree;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 // a Fenwick  tree implementation which supports point updates and sum range queries
 
 public class FenwickTreeRangeQueryPointUpdate {
@@ -11,6 +13,9 @@ public class FenwickTreeRangeQueryPointUpdate {
 	// this array contains the Fenwick tree values ranges
 	private long[] tree;
 
+	// below this many values or queries the parallel methods run sequentially
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
 	// create an empty Fenwick Tree with 'sz' parameter zero base
 	public FenwickTreeRangeQueryPointUpdate(int sz) {
 		tree = new long[N = sz + 1];
@@ -29,10 +34,45 @@ public class FenwickTreeRangeQueryPointUpdate {
 		// making a clone of the value array since we manipulate
 		// the array in place destroying all its original content
 		tree = values.clone();
+		buildInPlace(tree);
+	}
 
-		for (int i = 1; i < N; i++) {
+	// Construct a fenwick tree with an initial set of values like the constructor above,
+	// but spread over the threads of 'pool'. Node i holds the sum of (i - lsb(i), i], which
+	// is a difference of two prefix sums: those are computed with a parallel prefix, then
+	// every node independently. 'values' is left untouched, values[0] is taken as 0
+	public FenwickTreeRangeQueryPointUpdate(long[] values, ForkJoinPool pool) {
+		if (values == null)
+			throw new IllegalArgumentException("values array cannot be null");
+		if (pool == null)
+			throw new IllegalArgumentException("pool cannot be null");
+
+		N = values.length;
+		long[] prefix = values.clone();
+		prefix[0] = 0L;
+
+		// the parallel prefix makes two passes over the values, with a single
+		// thread or few values the sequential construction is faster
+		if (N < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+			buildInPlace(prefix);
+			tree = prefix;
+			return;
+		}
+
+		long[] fenwickTree = new long[N];
+		pool.submit(() -> {
+			Arrays.parallelPrefix(prefix, Long::sum);
+			IntStream.range(1, N).parallel().forEach(i -> fenwickTree[i] = prefix[i] - prefix[i - lsb(i)]);
+		}).join();
+		tree = fenwickTree;
+	}
+
+	// turns the values of 'tree' into their Fenwick tree, O(n)
+	private static void buildInPlace(long[] tree) {
+		final int n = tree.length;
+		for (int i = 1; i < n; i++) {
 			int parent = i + lsb(i);
-			if (parent < N)
+			if (parent < n)
 				tree[parent] += tree[i];
 		}
 	}
@@ -61,11 +101,50 @@ public class FenwickTreeRangeQueryPointUpdate {
 		return sum;
 	}
 
-	// returns the sum of the interval [left, right], O(log(n))
+	// returns the sum of the interval [left, right], O(log(n)). This is prefixSum(right) -
+	// prefixSum(left - 1), but both walks clear the low bits of their index one at a time,
+	// so they both go through 'right' with every bit below the highest bit where 'right' and
+	// 'left - 1' differ cleared. From there on the walks are the same and cancel out, so
+	// they stop at that node: a narrow interval only reads a few nodes instead of 2 log(n)
 	public long sum(int left, int right) {
 		if (right < left)
 			throw new IllegalArgumentException("Make sure right >= left");
-		return prefixSum(right) - prefixSum(left - 1);
+		int i = right, j = left - 1;
+		final int stop = i & ~((Integer.highestOneBit(i ^ j) << 1) - 1);
+		long sum = 0L;
+		for (; i > stop; i &= ~lsb(i))
+			sum += tree[i];
+		for (; j > stop; j &= ~lsb(j))
+			sum -= tree[j];
+		return sum;
+	}
+
+	// out[k] = sum(lefts[k], rights[k]) for every k
+	public void sumAll(int[] lefts, int[] rights, long[] out) {
+		checkBatch(lefts, rights, out);
+		for (int k = 0; k < lefts.length; k++)
+			out[k] = sum(lefts[k], rights[k]);
+	}
+
+	// the same as sumAll above, with the queries spread over the threads of 'pool'. The
+	// tree is only read, but it must not be modified until this method returns
+	public void sumAll(int[] lefts, int[] rights, long[] out, ForkJoinPool pool) {
+		checkBatch(lefts, rights, out);
+		if (pool == null)
+			throw new IllegalArgumentException("pool cannot be null");
+		if (lefts.length < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+			sumAll(lefts, rights, out);
+			return;
+		}
+		pool.submit(() -> IntStream.range(0, lefts.length).parallel().forEach(k -> out[k] = sum(lefts[k], rights[k])))
+				.join();
+	}
+
+	private static void checkBatch(int[] lefts, int[] rights, long[] out) {
+		if (lefts == null || rights == null || out == null)
+			throw new IllegalArgumentException("batch arrays cannot be null");
+		if (lefts.length != rights.length || out.length < lefts.length)
+			throw new IllegalArgumentException("batch arrays have mismatched lengths");
 	}
 
 	// get the value at index i
@@ -81,6 +160,65 @@ public class FenwickTreeRangeQueryPointUpdate {
 		}
 	}
 
+	// add deltas[k] to index idx[k] for every k. A large batch is applied in O(n) rather
+	// than O(k log(n)): the deltas are summed into an array, a tree is built over it and
+	// added to this one node by node, since the tree of a sum is the sum of the trees
+	public void addAll(int[] idx, long[] deltas) {
+		if (idx == null || deltas == null)
+			throw new IllegalArgumentException("batch arrays cannot be null");
+		if (idx.length != deltas.length)
+			throw new IllegalArgumentException("batch arrays have mismatched lengths");
+		for (int i : idx)
+			if (i < 1 || i >= N)
+				throw new IllegalArgumentException("index out of range: " + i);
+
+		final int levels = 32 - Integer.numberOfLeadingZeros(N);
+		if ((long) idx.length * levels <= N) {
+			for (int k = 0; k < idx.length; k++)
+				add(idx[k], deltas[k]);
+			return;
+		}
+
+		long[] deltaTree = new long[N];
+		for (int k = 0; k < idx.length; k++)
+			deltaTree[idx[k]] += deltas[k];
+		for (int i = 1; i < N; i++) {
+			int parent = i + lsb(i);
+			if (parent < N)
+				deltaTree[parent] += deltaTree[i];
+			tree[i] += deltaTree[i];
+		}
+	}
+
+	// returns the smallest index i such that sum(1, i) >= target, or N if there is none,
+	// O(log(n)). Only valid while every value is non negative, so that the prefix sums
+	// never decrease. Rather than binary searching over sum(1, mid), which is O(log^2(n)),
+	// this descends the tree from the largest power of two below N: node pos + step holds
+	// the sum of (pos, pos + step], so the whole stride is skipped whenever it stays below
+	// the target and the remaining target shrinks by it
+	public int findFirstPrefixAtLeast(long target) {
+		int pos = 0;
+		for (int step = Integer.highestOneBit(N - 1); step != 0; step >>= 1) {
+			int next = pos + step;
+			if (next < N && tree[next] < target) {
+				pos = next;
+				target -= tree[next];
+			}
+		}
+		return pos + 1;
+	}
+
+	// using the tree as a frequency table, where the value at index i counts the occurrences
+	// of i, returns the k-th smallest element (k is one based), O(log(n))
+	public int kth(long k) {
+		if (k < 1)
+			throw new IllegalArgumentException("k must be at least 1: " + k);
+		int i = findFirstPrefixAtLeast(k);
+		if (i == N)
+			throw new IllegalArgumentException("k is larger than the number of elements: " + k);
+		return i;
+	}
+
 	// set index i to be equal to v, O(log(n))
 	public void set(int i, long v) {
 		add(i, v - sum(i, i));
@@ -7,12 +7,9 @@ public class FenwickTreeRangeUpdatePointQuery {
 	// the size of the array holding the fenwick tree values
 	final int N;
 
-	// this array contains the original fenwick tree range
-	// values from when it was first created
-	private long[] originalTree;
-
-	// the current tree will contain the updated range values
-	private long[] currentTree;
+	// the fenwick tree of the differences between consecutive values, the
+	// prefix sum [1, i] of the differences is the value at index i
+	private long[] tree;
 
 	// construct a fenwick tree with an initial set of values.
 	// the 'value' array MUST BE ONE BASED meaning values[0]
@@ -24,17 +21,17 @@ public class FenwickTreeRangeUpdatePointQuery {
 		N = values.length;
 		values[0] = 0L;
 
-		// making a clone of the values array since we manipulate
-		// the array in place destroying all its original content
-		long[] fenwickTree = values.clone();
+		// turn the values into their differences, then build
+		// the fenwick tree over them in place
+		tree = new long[N];
+		for (int i = 1; i < N; i++)
+			tree[i] = values[i] - values[i - 1];
 
 		for (int i = 1; i < N; i++) {
 			int parent = i + lsb(i);
 			if (parent < N)
-				fenwickTree[parent] += fenwickTree[i];
+				tree[parent] += tree[i];
 		}
-		originalTree = fenwickTree;
-		currentTree = fenwickTree.clone();
 	}
 
 	// update the interval [left, right] with the value 'val', O(log(n))
@@ -46,21 +43,19 @@ public class FenwickTreeRangeUpdatePointQuery {
 	// add 'v' to index 'i' and all the ranges responsible for 'i', O(log(n))
 	private void add(int i, long v) {
 		while (i < N) {
-			currentTree[i] += v;
+			tree[i] += v;
 			i += lsb(i);
 		}
 	}
 
-	// get the value at a specific index. the logic behind this method is the
-	// same as finding the prefix sum in a fenwick tree except that you need to
-	// take the difference between the current tree and original to get
-	// the point value
+	// get the value at a specific index, which is the prefix
+	// sum of the differences up to it, O(log(n))
 	public long get(int i) {
-		return prefixSum(i, currentTree) - prefixSum(i - 1, originalTree);
+		return prefixSum(i);
 	}
 
 	// computes the prefix sum from [1, i], O(log(n))
-	private long prefixSum(int i, long[] tree) {
+	private long prefixSum(int i) {
 		long sum = 0L;
 		while (i != 0) {
 			sum += tree[i];
@@ -0,0 +1,123 @@
+package FenwickTtree;
+
+import java.util.Arrays;
+
+// a Fenwick tree implementation which supports both range updates and range sum queries,
+// using two Fenwick trees over the differences d[i] = values[i] - values[i-1]:
+//
+// the prefix sum [1, i] of the values is sum(d[j] * (i - j + 1)) for j <= i, which is
+// (i + 1) * sum(d[j]) - sum(d[j] * j). The first tree holds the d[j] and the second the
+// d[j] * j, a range update only changes two differences so it takes two point updates.
+//
+// both trees live in a single array with their nodes interleaved, tree[2i] belonging to
+// the first and tree[2i + 1] to the second. Every update and query visits the same
+// indexes in both trees, so each step reads a single cache line instead of two.
+public class FenwickTreeRangeUpdateRangeQuery {
+
+	// the size of the array holding the Fenwick tree values
+	final int N;
+
+	// the interleaved nodes of the two Fenwick trees
+	private long[] tree;
+
+	// create an empty Fenwick Tree with 'sz' parameter zero base
+	public FenwickTreeRangeUpdateRangeQuery(int sz) {
+		N = sz + 1;
+		tree = new long[2 * N];
+	}
+
+	// Construct a fenwick tree with an initial set of values.
+	// the 'values' array MUST BE ONE BASED meaning values[0]
+	// does not get used, O(n) construction
+	public FenwickTreeRangeUpdateRangeQuery(long[] values) {
+		if (values == null)
+			throw new IllegalArgumentException("values array cannot be null");
+
+		N = values.length;
+		tree = new long[2 * N];
+
+		// the differences go in place first, values[0] counts as 0
+		for (int i = 1; i < N; i++) {
+			long d = values[i] - (i > 1 ? values[i - 1] : 0L);
+			tree[2 * i] = d;
+			tree[2 * i + 1] = d * i;
+		}
+
+		for (int i = 1; i < N; i++) {
+			int parent = i + lsb(i);
+			if (parent < N) {
+				tree[2 * parent] += tree[2 * i];
+				tree[2 * parent + 1] += tree[2 * i + 1];
+			}
+		}
+	}
+
+	// this returns the value of the least significant bit(LSB)
+	// lsb(108) = lsb(0b1101100) = 0b100 = 4
+	// lsb(104) = lsb(0b1101000) = 0b1000 = 8
+	// lsb(96) = lsb(0b1100000) = 0b100000 = 32
+	// lsb(64) = lsb(0b1000000) = 0b1000000 = 64
+	private static int lsb(int i) {
+
+		// isolates the lowest one bit value
+		return i & -i;
+	}
+
+	// adds 'v' to the difference at index 'i' in both trees, O(log(n))
+	private void addDifference(int i, long v) {
+		final long vi = v * i;
+		while (i < N) {
+			tree[2 * i] += v;
+			tree[2 * i + 1] += vi;
+			i += lsb(i);
+		}
+	}
+
+	// computes the prefix sum of the values from [1, i], O(log(n))
+	private long prefixSum(int i) {
+		long sum = 0L, weightedSum = 0L;
+		final long n = i + 1L;
+		while (i != 0) {
+			sum += tree[2 * i];
+			weightedSum += tree[2 * i + 1];
+			i &= ~lsb(i); // Equivalently, i -= lsb(i)
+		}
+		return n * sum - weightedSum;
+	}
+
+	// returns the sum of the interval [left, right], O(log(n))
+	public long sum(int left, int right) {
+		if (right < left)
+			throw new IllegalArgumentException("Make sure right >= left");
+		return prefixSum(right) - prefixSum(left - 1);
+	}
+
+	// get the value at index i, O(log(n))
+	public long get(int i) {
+		return sum(i, i);
+	}
+
+	// add 'val' to every index of the interval [left, right], O(log(n))
+	public void updateRange(int left, int right, long val) {
+		if (right < left)
+			throw new IllegalArgumentException("Make sure right >= left");
+		addDifference(left, +val);
+		if (right + 1 < N)
+			addDifference(right + 1, -val);
+	}
+
+	// add 'v' to index 'i', O(log(n))
+	public void add(int i, long v) {
+		updateRange(i, i, v);
+	}
+
+	// set index i to be equal to v, O(log(n))
+	public void set(int i, long v) {
+		add(i, v - get(i));
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(tree);
+	}
+}
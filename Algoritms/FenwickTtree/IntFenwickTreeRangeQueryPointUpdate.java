@@ -0,0 +1,89 @@
+package FenwickTtree;
+
+import java.util.Arrays;
+
+// the FenwickTreeRangeQueryPointUpdate over an int[], for when the sums are known to fit
+// in 32 bits. It takes half the memory, so twice as many nodes fit in every cache line.
+// The sums overflow silently like int arithmetic does, a sum of an interval is still right
+// as long as the interval's true sum fits in an int.
+public class IntFenwickTreeRangeQueryPointUpdate {
+
+	// the size of the array holding the Fenwick tree values
+	final int N;
+
+	// this array contains the Fenwick tree values ranges
+	private int[] tree;
+
+	// create an empty Fenwick Tree with 'sz' parameter zero base
+	public IntFenwickTreeRangeQueryPointUpdate(int sz) {
+		tree = new int[N = sz + 1];
+	}
+
+	// Construct a fenwick tree with an initial set of values.
+	// the 'values' array MUST BE ONE BASED meaning values[0]
+	// does not get used, O(n) construction
+	public IntFenwickTreeRangeQueryPointUpdate(int[] values) {
+		if (values == null)
+			throw new IllegalArgumentException("values array cannot be null");
+
+		N = values.length;
+
+		// making a clone of the value array since we manipulate
+		// the array in place destroying all its original content
+		tree = values.clone();
+		tree[0] = 0;
+
+		for (int i = 1; i < N; i++) {
+			int parent = i + lsb(i);
+			if (parent < N)
+				tree[parent] += tree[i];
+		}
+	}
+
+	// this returns the value of the least significant bit(LSB)
+	private static int lsb(int i) {
+
+		// isolates the lowest one bit value
+		return i & -i;
+	}
+
+	// computes the prefix sum from [1, i], O(log(n))
+	private int prefixSum(int i) {
+		int sum = 0;
+		while (i != 0) {
+			sum += tree[i];
+			i &= ~lsb(i); // Equivalently, i -= lsb(i)
+		}
+		return sum;
+	}
+
+	// returns the sum of the interval [left, right], O(log(n))
+	public int sum(int left, int right) {
+		if (right < left)
+			throw new IllegalArgumentException("Make sure right >= left");
+		return prefixSum(right) - prefixSum(left - 1);
+	}
+
+	// get the value at index i
+	public int get(int i) {
+		return sum(i, i);
+	}
+
+	// add 'v' to index 'i', O(log(n))
+	public void add(int i, int v) {
+		while (i < N) {
+			tree[i] += v;
+			i += lsb(i);
+		}
+	}
+
+	// set index i to be equal to v, O(log(n))
+	public void set(int i, int v) {
+		add(i, v - sum(i, i));
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(tree);
+	}
+}
@@ -0,0 +1,164 @@
+package FenwickTtree;
+
+import java.util.Arrays;
+
+import HashTable.LongLongLinearProbingMap;
+
+// a Fenwick tree over a huge index space of longs (timestamps for instance) where only few
+// indexes ever hold a value, supporting point updates and sum range queries like
+// FenwickTreeRangeQueryPointUpdate. Its memory grows with the populated indexes rather than
+// with the largest one, in one of two ways:
+//
+// - with a maximum index the tree is dynamic: its nodes live in a LongLongLinearProbingMap
+// and only exist once an update went through them. Any index in [1, maxIndex] can be
+// updated, every update creating at most log(maxIndex) nodes.
+//
+// - with the indexes known up front the tree uses coordinate compression: the sorted
+// distinct indexes are kept in an array and the k-th of them is the k-th slot of a dense
+// tree. Updates must then hit one of those indexes, but queries may use any index and each
+// populated index costs only two longs.
+public class SparseFenwickTree {
+
+	// the largest index that can be updated
+	private final long maxIndex;
+
+	// the nodes of a dynamic tree, null with coordinate compression
+	private final LongLongLinearProbingMap nodes;
+
+	// the sorted distinct indexes and their dense tree, null for a dynamic tree
+	private final long[] coordinates;
+	private final long[] tree;
+
+	// create an empty dynamic Fenwick tree for the indexes [1, maxIndex]
+	public SparseFenwickTree(long maxIndex) {
+		if (maxIndex < 1)
+			throw new IllegalArgumentException("maxIndex must be at least 1: " + maxIndex);
+		this.maxIndex = maxIndex;
+		this.nodes = new LongLongLinearProbingMap();
+		this.coordinates = null;
+		this.tree = null;
+	}
+
+	// create an empty Fenwick tree that can only be updated at the given indexes, which must
+	// all be >= 1. The array is copied, it may hold duplicates and needs not be sorted
+	public SparseFenwickTree(long[] indexes) {
+		if (indexes == null)
+			throw new IllegalArgumentException("indexes array cannot be null");
+
+		long[] sorted = indexes.clone();
+		Arrays.sort(sorted);
+		int k = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] < 1)
+				throw new IllegalArgumentException("index out of range: " + sorted[i]);
+			if (k == 0 || sorted[i] != sorted[k - 1])
+				sorted[k++] = sorted[i];
+		}
+
+		this.coordinates = Arrays.copyOf(sorted, k);
+		this.tree = new long[k + 1];
+		this.maxIndex = k == 0 ? 0 : coordinates[k - 1];
+		this.nodes = null;
+	}
+
+	private static long lsb(long i) {
+		return i & -i;
+	}
+
+	// the number of populated indexes <= i, which is the slot of i in the dense tree of a
+	// compressed tree when i is one of its coordinates
+	private int rank(long i) {
+		int slot = Arrays.binarySearch(coordinates, i);
+		return slot >= 0 ? slot + 1 : -slot - 1;
+	}
+
+	// add 'v' to index 'i', O(log(maxIndex)) hash table updates for a dynamic tree and
+	// O(log(n)) for a compressed one
+	public void add(long i, long v) {
+		if (i < 1 || i > maxIndex)
+			throw new IllegalArgumentException("index out of range: " + i);
+
+		if (nodes == null) {
+			int slot = Arrays.binarySearch(coordinates, i);
+			if (slot < 0)
+				throw new IllegalArgumentException("index is not one of the tree's indexes: " + i);
+			for (int j = slot + 1; j < tree.length; j += j & -j)
+				tree[j] += v;
+			return;
+		}
+
+		// i stays positive until it goes past Long.MAX_VALUE
+		for (; i > 0 && i <= maxIndex; i += lsb(i))
+			nodes.put(i, nodes.get(i) + v);
+	}
+
+	// computes the prefix sum from [1, i], any i >= 0 can be queried
+	public long prefixSum(long i) {
+		if (i < 0)
+			throw new IllegalArgumentException("index out of range: " + i);
+
+		long sum = 0L;
+		if (nodes == null) {
+			for (int j = rank(i); j != 0; j &= j - 1)
+				sum += tree[j];
+			return sum;
+		}
+		for (i = Math.min(i, maxIndex); i != 0; i &= ~lsb(i))
+			sum += nodes.get(i);
+		return sum;
+	}
+
+	// returns the sum of the interval [left, right]. Like in FenwickTreeRangeQueryPointUpdate
+	// both walks stop at the node where they meet
+	public long sum(long left, long right) {
+		if (right < left)
+			throw new IllegalArgumentException("Make sure right >= left");
+		if (left < 1)
+			throw new IllegalArgumentException("index out of range: " + left);
+
+		if (nodes == null) {
+			int i = rank(right), j = rank(left - 1);
+			if (i == j)
+				return 0L;
+			final int stop = i & ~((Integer.highestOneBit(i ^ j) << 1) - 1);
+			long sum = 0L;
+			for (; i > stop; i &= i - 1)
+				sum += tree[i];
+			for (; j > stop; j &= j - 1)
+				sum -= tree[j];
+			return sum;
+		}
+
+		long i = Math.min(right, maxIndex), j = Math.min(left - 1, maxIndex);
+		if (i == j)
+			return 0L;
+		final long stop = i & ~((Long.highestOneBit(i ^ j) << 1) - 1);
+		long sum = 0L;
+		for (; i > stop; i &= ~lsb(i))
+			sum += nodes.get(i);
+		for (; j > stop; j &= ~lsb(j))
+			sum -= nodes.get(j);
+		return sum;
+	}
+
+	// get the value at index i
+	public long get(long i) {
+		return sum(i, i);
+	}
+
+	// set index i to be equal to v
+	public void set(long i, long v) {
+		add(i, v - get(i));
+	}
+
+	// the number of longs holding tree nodes: the populated nodes of a dynamic tree, or
+	// the populated indexes of a compressed one
+	public int nodeCount() {
+		return nodes == null ? coordinates.length : nodes.size();
+	}
+
+	@Override
+	public String toString() {
+		return nodes == null ? Arrays.toString(tree) : nodes.toString();
+	}
+}
@@ -0,0 +1,568 @@
+package HashTable;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+// a cache keeping at most 'maximumEntries' entries, and at most 'maximumWeight' of total
+// weight, evicting entries chosen by an eviction policy once either bound is exceeded.
+// Entries can also expire a fixed time after they were written. The keys are mapped to
+// their entries by a HashTableLinearProbing, the policies only order the entries.
+//
+// expired entries are dropped when they are next looked up, or by cleanUp(), until then
+// they still count towards size() and weight(). Null values are not allowed, so get
+// returning null always means a miss. Like the tables, this class is not thread safe.
+public class BoundedCache<K, V> {
+
+	public enum EvictionPolicy {
+		// evicts the least recently used entry
+		LRU,
+		// an approximation of LRU: every entry has a reference bit set when it is used, a hand
+		// sweeps over the entries clearing the bits and evicts the first entry found unset
+		CLOCK,
+		// W-TinyLFU: new entries go through a small LRU window, an entry leaving the window
+		// only enters the main space (a segmented LRU) if a count-min sketch estimates it is
+		// used more often than the entry it would evict. This keeps one off scans from
+		// flushing the popular entries out of the cache
+		W_TINY_LFU
+	}
+
+	@FunctionalInterface
+	public interface Weigher<K, V> {
+		int weigh(K key, V value);
+	}
+
+	private final HashTableLinearProbing<K, Node<K, V>> table;
+	private final Policy<K, V> policy;
+
+	private final int maximumEntries;
+	private final long maximumWeight;
+	private final Weigher<? super K, ? super V> weigher;
+	private final long expireAfterWriteNanos;
+
+	private long weight;
+	private long hits, misses, evictions, expirations;
+
+	public BoundedCache(int maximumEntries) {
+		this(maximumEntries, EvictionPolicy.LRU);
+	}
+
+	public BoundedCache(int maximumEntries, EvictionPolicy policy) {
+		this(policy, maximumEntries, Long.MAX_VALUE, null, 0);
+	}
+
+	// designated constructor. 'weigher' gives the weight counted against 'maximumWeight',
+	// a null weigher weighs every entry 1. An 'expireAfterWriteNanos' of 0 never expires
+	// the entries. Integer.MAX_VALUE and Long.MAX_VALUE leave the cache unbounded
+	public BoundedCache(EvictionPolicy policy, int maximumEntries, long maximumWeight,
+			Weigher<? super K, ? super V> weigher, long expireAfterWriteNanos) {
+		if (policy == null)
+			throw new IllegalArgumentException("Null eviction policy");
+		if (maximumEntries <= 0)
+			throw new IllegalArgumentException("Illegal maximumEntries: " + maximumEntries);
+		if (maximumWeight <= 0)
+			throw new IllegalArgumentException("Illegal maximumWeight: " + maximumWeight);
+		if (expireAfterWriteNanos < 0)
+			throw new IllegalArgumentException("Illegal expireAfterWriteNanos: " + expireAfterWriteNanos);
+
+		this.maximumEntries = maximumEntries;
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+		this.table = new HashTableLinearProbing<>(Math.min(maximumEntries, 1 << 16));
+
+		// W-TinyLFU sizes its segments in weight when the weight is bounded, in entries otherwise
+		boolean weighted = maximumWeight != Long.MAX_VALUE;
+		long maximum = weighted ? maximumWeight : maximumEntries;
+		int expectedEntries = (int) Math.min(maximumEntries, maximumWeight);
+
+		switch (policy) {
+		case LRU:
+			this.policy = new Lru<>();
+			break;
+		case CLOCK:
+			this.policy = new Clock<>();
+			break;
+		default:
+			this.policy = new WindowTinyLfu<>(maximum, weighted, expectedEntries);
+		}
+	}
+
+	// an entry of the cache. 'prev' and 'next' link it into the access ordered list of
+	// the LRU policy or of its W-TinyLFU segment, 'index' is its slot in the CLOCK ring
+	private static final class Node<K, V> {
+		final K key;
+		V value;
+		int weight, segment, index;
+		long writeTime;
+		Node<K, V> prev, next;
+
+		Node(K key, V value, int weight, long writeTime) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = writeTime;
+		}
+	}
+
+	private long now() {
+		return expireAfterWriteNanos == 0 ? 0 : System.nanoTime();
+	}
+
+	private boolean isExpired(Node<K, V> node) {
+		return expireAfterWriteNanos != 0 && System.nanoTime() - node.writeTime >= expireAfterWriteNanos;
+	}
+
+	// the entries currently held, expired ones included until they are dropped
+	public int size() {
+		return table.size();
+	}
+
+	public boolean isEmpty() {
+		return table.isEmpty();
+	}
+
+	// the total weight of the entries currently held
+	public long weight() {
+		return weight;
+	}
+
+	public boolean containsKey(K key) {
+		Node<K, V> node = table.get(key);
+		return node != null && !isExpired(node);
+	}
+
+	// returns the value cached for 'key' or null on a miss
+	public V get(K key) {
+		Node<K, V> node = table.get(key);
+		if (node != null && isExpired(node)) {
+			removeNode(node);
+			expirations++;
+			node = null;
+		}
+		if (node == null) {
+			misses++;
+			policy.onMiss(key);
+			return null;
+		}
+		hits++;
+		policy.onAccess(node);
+		return node.value;
+	}
+
+	// returns the value cached for 'key', computing and caching it on a miss. Nothing
+	// is cached when 'loader' returns null
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value == null) {
+			value = loader.apply(key);
+			if (value != null)
+				put(key, value);
+		}
+		return value;
+	}
+
+	// insert, put and add all cache a value, evicting entries as needed. Returns the
+	// value cached for the key before or null if there was none
+	public V put(K key, V value) {
+		return insert(key, value);
+	}
+
+	public V add(K key, V value) {
+		return insert(key, value);
+	}
+
+	public V insert(K key, V value) {
+		if (key == null)
+			throw new IllegalArgumentException("Null key");
+		if (value == null)
+			throw new IllegalArgumentException("Null value");
+		final int entryWeight = weigher == null ? 1 : weigher.weigh(key, value);
+		if (entryWeight < 0)
+			throw new IllegalArgumentException("Illegal weight: " + entryWeight);
+
+		Node<K, V> node = table.get(key);
+		if (node != null && isExpired(node)) {
+			removeNode(node);
+			expirations++;
+			node = null;
+		}
+
+		V oldValue = node == null ? null : node.value;
+
+		// an entry heavier than the whole cache would flush everything else out, it is evicted right away
+		if (entryWeight > maximumWeight) {
+			if (node != null)
+				removeNode(node);
+			evictions++;
+			return oldValue;
+		}
+
+		if (node != null) {
+			int oldWeight = node.weight;
+			node.value = value;
+			node.weight = entryWeight;
+			node.writeTime = now();
+			weight += entryWeight - oldWeight;
+			policy.onUpdate(node, oldWeight);
+		} else {
+			node = new Node<>(key, value, entryWeight, now());
+			table.put(key, node);
+			weight += entryWeight;
+			policy.onInsert(node);
+		}
+
+		while (table.size() > maximumEntries || weight > maximumWeight) {
+			removeNode(policy.victim());
+			evictions++;
+		}
+		return oldValue;
+	}
+
+	// removes a key from the cache and returns its value or null if it was not cached
+	public V remove(K key) {
+		Node<K, V> node = table.get(key);
+		if (node == null)
+			return null;
+		removeNode(node);
+		return isExpired(node) ? null : node.value;
+	}
+
+	private void removeNode(Node<K, V> node) {
+		table.remove(node.key);
+		weight -= node.weight;
+		policy.onRemove(node);
+	}
+
+	// drops every expired entry, this takes O(capacity) of the underlying table
+	public void cleanUp() {
+		if (expireAfterWriteNanos == 0)
+			return;
+		for (Node<K, V> node : table.values()) {
+			if (isExpired(node)) {
+				removeNode(node);
+				expirations++;
+			}
+		}
+	}
+
+	public void clear() {
+		table.clear();
+		policy.clear();
+		weight = 0;
+	}
+
+	public long hitCount() {
+		return hits;
+	}
+
+	public long missCount() {
+		return misses;
+	}
+
+	// the fraction of the lookups that were hits, 1 before any lookup
+	public double hitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 1.0 : (double) hits / lookups;
+	}
+
+	// the entries evicted to respect the bounds, expired ones are counted by expirationCount
+	public long evictionCount() {
+		return evictions;
+	}
+
+	public long expirationCount() {
+		return expirations;
+	}
+
+	public void resetStats() {
+		hits = misses = evictions = expirations = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("size=%d, weight=%d, hits=%d, misses=%d (hit ratio %.3f), evictions=%d, expirations=%d",
+				size(), weight, hits, misses, hitRatio(), evictions, expirations);
+	}
+
+	// orders the entries of the cache and picks the ones to evict
+	private abstract static class Policy<K, V> {
+
+		abstract void onInsert(Node<K, V> node);
+
+		abstract void onAccess(Node<K, V> node);
+
+		// the value, and maybe the weight, of a cached entry was replaced
+		void onUpdate(Node<K, V> node, int oldWeight) {
+			onAccess(node);
+		}
+
+		void onMiss(K key) {
+		}
+
+		abstract void onRemove(Node<K, V> node);
+
+		// the entry to evict next, only called while the cache holds entries
+		abstract Node<K, V> victim();
+
+		abstract void clear();
+	}
+
+	// a doubly linked list of entries from the least (head) to the most (tail) recently used,
+	// 'weight' sums the costs the W-TinyLFU policy charges for them
+	private static final class AccessOrder<K, V> {
+		Node<K, V> head, tail;
+		long weight;
+
+		void addLast(Node<K, V> node, int cost) {
+			node.prev = tail;
+			node.next = null;
+			if (tail == null)
+				head = node;
+			else
+				tail.next = node;
+			tail = node;
+			weight += cost;
+		}
+
+		void unlink(Node<K, V> node, int cost) {
+			if (node.prev == null)
+				head = node.next;
+			else
+				node.prev.next = node.next;
+			if (node.next == null)
+				tail = node.prev;
+			else
+				node.next.prev = node.prev;
+			node.prev = node.next = null;
+			weight -= cost;
+		}
+
+		void moveToLast(Node<K, V> node) {
+			if (node != tail) {
+				unlink(node, 0);
+				addLast(node, 0);
+			}
+		}
+
+		void clear() {
+			head = tail = null;
+			weight = 0;
+		}
+	}
+
+	private static final class Lru<K, V> extends Policy<K, V> {
+		private final AccessOrder<K, V> order = new AccessOrder<>();
+
+		@Override
+		void onInsert(Node<K, V> node) {
+			order.addLast(node, 0);
+		}
+
+		@Override
+		void onAccess(Node<K, V> node) {
+			order.moveToLast(node);
+		}
+
+		@Override
+		void onRemove(Node<K, V> node) {
+			order.unlink(node, 0);
+		}
+
+		@Override
+		Node<K, V> victim() {
+			return order.head;
+		}
+
+		@Override
+		void clear() {
+			order.clear();
+		}
+	}
+
+	// the entries sit in a ring with their reference bits alongside, the slots freed by
+	// removals are reused before the ring grows
+	private static final class Clock<K, V> extends Policy<K, V> {
+		private static final int INITIAL_SIZE = 16;
+
+		private Node<K, V>[] ring;
+		private boolean[] referenced;
+
+		// the freed slots, and the slots below 'used' are the ones ever handed out
+		private int[] free;
+		private int freeCount, used, hand;
+
+		Clock() {
+			clear();
+		}
+
+		@Override
+		void onInsert(Node<K, V> node) {
+			int i;
+			if (freeCount > 0) {
+				i = free[--freeCount];
+			} else {
+				if (used == ring.length)
+					grow();
+				i = used++;
+			}
+			ring[i] = node;
+			node.index = i;
+
+			// a new entry gets one sweep of the hand before it may be evicted
+			referenced[i] = true;
+		}
+
+		private void grow() {
+			ring = Arrays.copyOf(ring, ring.length * 2);
+			referenced = Arrays.copyOf(referenced, referenced.length * 2);
+			free = Arrays.copyOf(free, free.length * 2);
+		}
+
+		@Override
+		void onAccess(Node<K, V> node) {
+			referenced[node.index] = true;
+		}
+
+		@Override
+		void onRemove(Node<K, V> node) {
+			ring[node.index] = null;
+			referenced[node.index] = false;
+			free[freeCount++] = node.index;
+		}
+
+		@Override
+		Node<K, V> victim() {
+			for (;;) {
+				if (hand >= used)
+					hand = 0;
+				int i = hand++;
+				if (ring[i] == null)
+					continue;
+				if (!referenced[i])
+					return ring[i];
+				referenced[i] = false;
+			}
+		}
+
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		void clear() {
+			ring = new Node[INITIAL_SIZE];
+			referenced = new boolean[INITIAL_SIZE];
+			free = new int[INITIAL_SIZE];
+			freeCount = used = hand = 0;
+		}
+	}
+
+	// the window takes 1% of the cache, the main space the rest: 80% of it is the protected
+	// segment holding the entries used again since they entered the main space, the
+	// others are in the probation segment and are the first to be evicted from it
+	private static final class WindowTinyLfu<K, V> extends Policy<K, V> {
+		private static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+		private final AccessOrder<K, V> window = new AccessOrder<>(), probation = new AccessOrder<>(),
+				protectedSegment = new AccessOrder<>();
+		private final long windowMaximum, mainMaximum, protectedMaximum;
+		private final boolean weighted;
+		private final FrequencySketch sketch;
+
+		WindowTinyLfu(long maximum, boolean weighted, int expectedEntries) {
+			this.windowMaximum = Math.max(1, maximum / 100);
+			this.mainMaximum = Math.max(1, maximum - windowMaximum);
+			this.protectedMaximum = mainMaximum * 8 / 10;
+			this.weighted = weighted;
+			this.sketch = new FrequencySketch(expectedEntries);
+		}
+
+		private int cost(Node<K, V> node) {
+			return weighted ? node.weight : 1;
+		}
+
+		private AccessOrder<K, V> segment(Node<K, V> node) {
+			return node.segment == WINDOW ? window : node.segment == PROBATION ? probation : protectedSegment;
+		}
+
+		@Override
+		void onInsert(Node<K, V> node) {
+			sketch.increment(node.key);
+			node.segment = WINDOW;
+			window.addLast(node, cost(node));
+
+			// while the main space has room the window simply overflows into it
+			while (window.weight > windowMaximum && window.head != node) {
+				Node<K, V> first = window.head;
+				if (probation.weight + protectedSegment.weight + cost(first) > mainMaximum)
+					break;
+				window.unlink(first, cost(first));
+				first.segment = PROBATION;
+				probation.addLast(first, cost(first));
+			}
+		}
+
+		@Override
+		void onAccess(Node<K, V> node) {
+			sketch.increment(node.key);
+			if (node.segment == PROBATION) {
+				probation.unlink(node, cost(node));
+				node.segment = PROTECTED;
+				protectedSegment.addLast(node, cost(node));
+
+				// the protected segment overflows back into the probation segment
+				while (protectedSegment.weight > protectedMaximum && protectedSegment.head != node) {
+					Node<K, V> first = protectedSegment.head;
+					protectedSegment.unlink(first, cost(first));
+					first.segment = PROBATION;
+					probation.addLast(first, cost(first));
+				}
+			} else {
+				segment(node).moveToLast(node);
+			}
+		}
+
+		@Override
+		void onUpdate(Node<K, V> node, int oldWeight) {
+			if (weighted)
+				segment(node).weight += node.weight - oldWeight;
+			onAccess(node);
+		}
+
+		@Override
+		void onMiss(K key) {
+			sketch.increment(key);
+		}
+
+		@Override
+		void onRemove(Node<K, V> node) {
+			segment(node).unlink(node, cost(node));
+		}
+
+		// the entry leaving an overfull window is the candidate, it is admitted in the main
+		// space if it was seen more often than the entry that would be evicted from there
+		@Override
+		Node<K, V> victim() {
+			Node<K, V> candidate = window.weight > windowMaximum ? window.head : null;
+			Node<K, V> mainVictim = probation.head != null ? probation.head : protectedSegment.head;
+
+			if (candidate == null)
+				return mainVictim != null ? mainVictim : window.head;
+			if (mainVictim == null)
+				return candidate;
+
+			if (sketch.frequency(candidate.key) > sketch.frequency(mainVictim.key)) {
+				window.unlink(candidate, cost(candidate));
+				candidate.segment = PROBATION;
+				probation.addLast(candidate, cost(candidate));
+				return mainVictim;
+			}
+			return candidate;
+		}
+
+		@Override
+		void clear() {
+			window.clear();
+			probation.clear();
+			protectedSegment.clear();
+			sketch.clear();
+		}
+	}
+}
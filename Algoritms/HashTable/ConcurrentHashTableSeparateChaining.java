@@ -0,0 +1,459 @@
+package HashTable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// a thread safe version of HashTableSeparateChaining.
+//
+// writers lock one stripe out of a fixed set of locks (bucket index mod the number of stripes)
+// while readers never lock at all, they only walk the chains through volatile links.
+//
+// growing the table is done cooperatively and incrementally: the thread that crosses the
+// threshold allocates the new table and then every writer that runs into the resize claims
+// a chunk of buckets and moves them over. A moved bucket is replaced by a forwarding node
+// pointing at the new table, so a reader that lands on it simply continues its lookup
+// there and never waits for the resize to finish.
+public class ConcurrentHashTableSeparateChaining<K, V> implements Iterable<K> {
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final double DEFAULT_LOAD_FACTOR = 0.75;
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+	// number of buckets a thread claims at a time while helping with a resize
+	private static final int TRANSFER_STRIDE = 16;
+
+	// the largest power of two an int can hold
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final double maxLoadFactor;
+	private volatile int threshold;
+
+	// capacity is always a power of two so a bucket index is a simple mask
+	private volatile AtomicReferenceArray<Node<K, V>> table;
+
+	// the resize currently in progress or null if there is none
+	private final AtomicReference<Resize<K, V>> resizing = new AtomicReference<>();
+	private final Object resizeStartLock = new Object();
+
+	private final ReentrantLock[] locks;
+	private final LongAdder size = new LongAdder();
+
+	public ConcurrentHashTableSeparateChaining() {
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public ConcurrentHashTableSeparateChaining(int capacity) {
+		this(capacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public ConcurrentHashTableSeparateChaining(int capacity, double maxLoadFactor) {
+		this(capacity, maxLoadFactor, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	// designated constructor, 'concurrencyLevel' is the number of lock stripes
+	public ConcurrentHashTableSeparateChaining(int capacity, double maxLoadFactor, int concurrencyLevel) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Illegal capacity");
+		if (maxLoadFactor <= 0 || Double.isNaN(maxLoadFactor) || Double.isInfinite(maxLoadFactor))
+			throw new IllegalArgumentException("Illegal maxLoadFactor");
+		if (concurrencyLevel <= 0)
+			throw new IllegalArgumentException("Illegal concurrencyLevel");
+
+		this.maxLoadFactor = maxLoadFactor;
+		int cap = tableSizeFor(Math.max(DEFAULT_CAPACITY, capacity));
+		threshold = (int) Math.min(Integer.MAX_VALUE, cap * maxLoadFactor);
+		table = new AtomicReferenceArray<>(cap);
+
+		locks = new ReentrantLock[tableSizeFor(concurrencyLevel)];
+		for (int i = 0; i < locks.length; i++)
+			locks[i] = new ReentrantLock();
+	}
+
+	// returns the smallest power of two >= n
+	private static int tableSizeFor(int n) {
+		if (n >= MAXIMUM_CAPACITY)
+			return MAXIMUM_CAPACITY;
+		return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+	}
+
+	// mixes the high bits into the low ones since the
+	// bucket index only looks at the lowest bits of the hash
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	private ReentrantLock lockFor(int bucketIndex) {
+		return locks[bucketIndex & (locks.length - 1)];
+	}
+
+	// the number of keys, this is only a snapshot while other threads are writing
+	public int size() {
+		return (int) Math.max(0L, Math.min(Integer.MAX_VALUE, size.sum()));
+	}
+
+	public boolean isEmpty() {
+		return size.sum() <= 0L;
+	}
+
+	// returns the current capacity of the table
+	public int getCapacity() {
+		return table.length();
+	}
+
+	// removes every key currently in the table. Keys inserted
+	// concurrently with the clear may or may not survive it
+	public void clear() {
+		for (K key : this)
+			remove(key);
+	}
+
+	public boolean containsKey(K key) {
+		return hasKey(key);
+	}
+
+	// returns true/false depending on whether a key is in the hash table
+	public boolean hasKey(K key) {
+		if (key == null)
+			return false;
+		return seekNode(key) != null;
+	}
+
+	// insert, put and add all places a value in the hash-table
+	public V put(K key, V value) {
+		return insert(key, value);
+	}
+
+	public V add(K key, V value) {
+		return insert(key, value);
+	}
+
+	// gets a key's value from the map, never blocks.
+	// NOTE: returns null if the value is null AND also returns
+	// null if the key does not exists, so watch out...
+	public V get(K key) {
+		if (key == null)
+			return null;
+		Node<K, V> node = seekNode(key);
+		return node == null ? null : node.value;
+	}
+
+	// lock free lookup, follows forwarding nodes into the new table during a resize
+	private Node<K, V> seekNode(K key) {
+		final int hash = spread(key.hashCode());
+		AtomicReferenceArray<Node<K, V>> tab = table;
+		Node<K, V> node = tab.get(hash & (tab.length() - 1));
+		while (node != null) {
+			if (node instanceof ForwardingNode) {
+				tab = ((ForwardingNode<K, V>) node).nextTable;
+				node = tab.get(hash & (tab.length() - 1));
+				continue;
+			}
+			if (node.hash == hash && key.equals(node.key))
+				return node;
+			node = node.next;
+		}
+		return null;
+	}
+
+	// place a key-value pair into the hash-table. If the key already
+	// exists inside the hash-table then the value is updated
+	public V insert(K key, V value) {
+		if (key == null)
+			throw new IllegalArgumentException("Null key");
+		final int hash = spread(key.hashCode());
+
+		AtomicReferenceArray<Node<K, V>> tab = table;
+		while (true) {
+			int bucketIndex = hash & (tab.length() - 1);
+			ReentrantLock lock = lockFor(bucketIndex);
+			AtomicReferenceArray<Node<K, V>> forwardedTo = null;
+
+			lock.lock();
+			try {
+				Node<K, V> head = tab.get(bucketIndex);
+				if (head instanceof ForwardingNode) {
+					forwardedTo = ((ForwardingNode<K, V>) head).nextTable;
+				} else {
+					for (Node<K, V> node = head; node != null; node = node.next) {
+						if (node.hash == hash && key.equals(node.key)) {
+							V oldVal = node.value;
+							node.value = value;
+							return oldVal;
+						}
+					}
+					tab.set(bucketIndex, new Node<>(hash, key, value, head));
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			// this bucket has already been moved, help finish the
+			// resize and then retry the insert inside the new table
+			if (forwardedTo != null) {
+				helpTransfer();
+				tab = forwardedTo;
+				continue;
+			}
+
+			size.increment();
+			if (resizing.get() != null)
+				helpTransfer();
+			else if (size.sum() > threshold)
+				startResize(tab);
+			return null; // using null to indicate that there was no previous entry
+		}
+	}
+
+	// removes a key from the map and returns the value.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V remove(K key) {
+		if (key == null)
+			return null;
+		final int hash = spread(key.hashCode());
+
+		AtomicReferenceArray<Node<K, V>> tab = table;
+		while (true) {
+			int bucketIndex = hash & (tab.length() - 1);
+			ReentrantLock lock = lockFor(bucketIndex);
+			AtomicReferenceArray<Node<K, V>> forwardedTo = null;
+
+			lock.lock();
+			try {
+				Node<K, V> head = tab.get(bucketIndex);
+				if (head instanceof ForwardingNode) {
+					forwardedTo = ((ForwardingNode<K, V>) head).nextTable;
+				} else {
+					for (Node<K, V> node = head, prev = null; node != null; prev = node, node = node.next) {
+						if (node.hash == hash && key.equals(node.key)) {
+							// readers standing on 'node' can still follow its next link
+							if (prev == null)
+								tab.set(bucketIndex, node.next);
+							else
+								prev.next = node.next;
+							size.decrement();
+							return node.value;
+						}
+					}
+					return null;
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			helpTransfer();
+			tab = forwardedTo;
+		}
+	}
+
+	// starts doubling 'tab' unless another thread beat us to it
+	private void startResize(AtomicReferenceArray<Node<K, V>> tab) {
+		synchronized (resizeStartLock) {
+			// the table is only replaced right before 'resizing' is cleared, so
+			// when no resize is running 'table' is the one the thread should grow
+			if (resizing.get() != null || table != tab || size.sum() <= threshold)
+				return;
+			if (tab.length() >= MAXIMUM_CAPACITY) {
+				threshold = Integer.MAX_VALUE;
+				return;
+			}
+			resizing.set(new Resize<>(tab, new AtomicReferenceArray<>(tab.length() << 1)));
+		}
+		helpTransfer();
+	}
+
+	// moves chunks of buckets into the new table for as long as there are unclaimed ones
+	private void helpTransfer() {
+		Resize<K, V> resize = resizing.get();
+		if (resize == null)
+			return;
+
+		final int n = resize.oldTable.length();
+		while (true) {
+			int start = resize.transferIndex.getAndAdd(TRANSFER_STRIDE);
+			if (start >= n)
+				return;
+			int end = Math.min(n, start + TRANSFER_STRIDE);
+			for (int i = start; i < end; i++)
+				transferBucket(resize, i);
+
+			// the thread moving the last chunk publishes the new table
+			if (resize.transferred.addAndGet(end - start) == n) {
+				table = resize.newTable;
+				threshold = (int) Math.min(Integer.MAX_VALUE, resize.newTable.length() * maxLoadFactor);
+				resizing.set(null);
+				return;
+			}
+		}
+	}
+
+	// splits bucket 'i' of the old table into the buckets 'i' and 'i + n' of the new
+	// one. The nodes are copied rather than relinked so that readers still walking the
+	// old chain see it unchanged, then the old bucket is replaced by a forwarding node
+	private void transferBucket(Resize<K, V> resize, int i) {
+		final int n = resize.oldTable.length();
+		ReentrantLock lock = lockFor(i);
+		lock.lock();
+		try {
+			Node<K, V> lo = null, hi = null;
+			for (Node<K, V> node = resize.oldTable.get(i); node != null; node = node.next) {
+				if ((node.hash & n) == 0)
+					lo = new Node<>(node.hash, node.key, node.value, lo);
+				else
+					hi = new Node<>(node.hash, node.key, node.value, hi);
+			}
+			resize.newTable.set(i, lo);
+			resize.newTable.set(i + n, hi);
+			resize.oldTable.set(i, new ForwardingNode<>(resize.newTable));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// returns the list of keys found within the hash table
+	public List<K> keys() {
+		List<K> keys = new ArrayList<>(size());
+		for (Node<K, V> node : nodes())
+			keys.add(node.key);
+		return keys;
+	}
+
+	// returns the list of values found within the hash table
+	public List<V> values() {
+		List<V> values = new ArrayList<>(size());
+		for (Node<K, V> node : nodes())
+			values.add(node.value);
+		return values;
+	}
+
+	// return an iterator over all the keys in this map. The iterator is weakly
+	// consistent, it never throws a ConcurrentModificationException and reflects
+	// some, but not necessarily all, of the changes made while iterating
+	@Override
+	public Iterator<K> iterator() {
+		final Iterator<Node<K, V>> nodes = nodes().iterator();
+		return new Iterator<K>() {
+			@Override
+			public boolean hasNext() {
+				return nodes.hasNext();
+			}
+
+			@Override
+			public K next() {
+				return nodes.next().key;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	// walks every bucket of the current table one at a time, descending
+	// into the newer tables for the buckets that have already been moved
+	private Iterable<Node<K, V>> nodes() {
+		final AtomicReferenceArray<Node<K, V>> root = table;
+		return () -> new Iterator<Node<K, V>>() {
+			int bucketIndex = 0;
+			Iterator<Node<K, V>> bucketIter = null;
+
+			@Override
+			public boolean hasNext() {
+				while (bucketIter == null || !bucketIter.hasNext()) {
+					if (bucketIndex >= root.length())
+						return false;
+					List<Node<K, V>> bucket = new ArrayList<>();
+					collectBucket(root, bucketIndex++, bucket);
+					bucketIter = bucket.iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public Node<K, V> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return bucketIter.next();
+			}
+		};
+	}
+
+	// adds the nodes of a bucket to 'out'. A moved bucket 'i' of a table of
+	// capacity n lives on in the buckets 'i' and 'i + n' of the next table
+	private static <K, V> void collectBucket(AtomicReferenceArray<Node<K, V>> tab, int i, List<Node<K, V>> out) {
+		Node<K, V> node = tab.get(i);
+		if (node instanceof ForwardingNode) {
+			AtomicReferenceArray<Node<K, V>> nextTable = ((ForwardingNode<K, V>) node).nextTable;
+			collectBucket(nextTable, i, out);
+			collectBucket(nextTable, i + tab.length(), out);
+			return;
+		}
+		for (; node != null; node = node.next)
+			out.add(node);
+	}
+
+	// this will be the representation of the table
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		for (Node<K, V> node : nodes())
+			sb.append(node + ", ");
+		sb.append("}");
+		return sb.toString();
+	}
+
+	// a chain link. Only 'value' and 'next' ever change and both are volatile
+	// so that a reader walking the chain without a lock sees the latest writes
+	static class Node<K, V> {
+		final int hash;
+		final K key;
+		volatile V value;
+		volatile Node<K, V> next;
+
+		Node(int hash, K key, V value, Node<K, V> next) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+
+		@Override
+		public String toString() {
+			return key + " => " + value;
+		}
+	}
+
+	// placed in a bucket of the old table once its content has been moved
+	static final class ForwardingNode<K, V> extends Node<K, V> {
+		final AtomicReferenceArray<Node<K, V>> nextTable;
+
+		ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+			super(0, null, null, null);
+			this.nextTable = nextTable;
+		}
+	}
+
+	// the state shared by all the threads taking part in one resize
+	static final class Resize<K, V> {
+		final AtomicReferenceArray<Node<K, V>> oldTable, newTable;
+
+		// next bucket of the old table that has not been claimed yet
+		final AtomicInteger transferIndex = new AtomicInteger();
+
+		// number of buckets that have been completely moved
+		final AtomicInteger transferred = new AtomicInteger();
+
+		Resize(AtomicReferenceArray<Node<K, V>> oldTable, AtomicReferenceArray<Node<K, V>> newTable) {
+			this.oldTable = oldTable;
+			this.newTable = newTable;
+		}
+	}
+}
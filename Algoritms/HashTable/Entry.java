@@ -0,0 +1,31 @@
+package HashTable;
+
+// an entry of a bucket, 'next' links it to the following entry of the same chain
+class Entry<K, V> {
+
+	int hash;
+	K key;
+	V value;
+	Entry<K, V> next;
+
+	public Entry(int hash, K key, V value, Entry<K, V> next) {
+		this.hash = hash;
+		this.key = key;
+		this.value = value;
+		this.next = next;
+	}
+
+	// we are not overriding the Object equals method
+	// no casting is required with this method
+	public boolean equals(Entry<K, V> other) {
+		if (hash != other.hash)
+			return false;
+		return key.equals(other.key);
+	}
+
+	@Override
+	public String toString() {
+		return key + " => " + value;
+	}
+
+}
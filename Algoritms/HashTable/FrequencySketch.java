@@ -0,0 +1,85 @@
+package HashTable;
+
+import java.util.Arrays;
+
+// a count-min sketch of 4 bit counters estimating how often keys were seen, the admission
+// filter of the W-TinyLFU policy of BoundedCache. A key maps to one counter in each of the
+// DEPTH rows and its frequency is the smallest of them, so collisions can only make a key
+// look more popular than it is. Once there have been 10 times as many increments as there
+// are counters in a row all the counters are halved, the sketch then forgets old popularity
+// and keeps following the workload.
+final class FrequencySketch {
+
+	private static final int DEPTH = 4;
+	private static final long[] SEEDS = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL,
+			0xCBF29CE484222325L };
+
+	// halving a word of 16 counters at once shifts the low bit of every counter into the
+	// high bit of the one below it, the mask clears those bits again
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final int MAX_COUNT = 15;
+
+	// DEPTH rows of 'width' counters, 16 counters are packed into every long
+	private final long[] table;
+	private final int width, sampleSize;
+	private int additions = 0;
+
+	FrequencySketch(int expectedEntries) {
+		int n = Math.max(16, Math.min(expectedEntries, 1 << 24));
+		width = Integer.highestOneBit(n - 1) << 1;
+		table = new long[DEPTH * width / 16];
+		sampleSize = 10 * width;
+	}
+
+	// spreads the hash code the same way HashTableGroupProbing does
+	private static int spread(Object key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	// the counter of 'hash' in 'row', as an index over all the counters of the table
+	private int counter(int hash, int row) {
+		long h = (hash + SEEDS[row]) * SEEDS[row];
+		h += h >>> 32;
+		return row * width + ((int) h & (width - 1));
+	}
+
+	// the estimated number of times 'key' was seen, at most 15
+	int frequency(Object key) {
+		int hash = spread(key), frequency = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			int i = counter(hash, row);
+			frequency = Math.min(frequency, (int) (table[i >>> 4] >>> ((i & 15) << 2)) & MAX_COUNT);
+		}
+		return frequency;
+	}
+
+	void increment(Object key) {
+		int hash = spread(key);
+		boolean added = false;
+		for (int row = 0; row < DEPTH; row++) {
+			int i = counter(hash, row), shift = (i & 15) << 2;
+			if ((table[i >>> 4] >>> shift & MAX_COUNT) != MAX_COUNT) {
+				table[i >>> 4] += 1L << shift;
+				added = true;
+			}
+		}
+		if (added && ++additions == sampleSize)
+			reset();
+	}
+
+	private void reset() {
+		for (int i = 0; i < table.length; i++)
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		additions /= 2;
+	}
+
+	void clear() {
+		Arrays.fill(table, 0L);
+		additions = 0;
+	}
+}
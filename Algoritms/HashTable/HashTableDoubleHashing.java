@@ -1,11 +1,5 @@
 package HashTable;
 
-import java.math.BigInteger;
-
-interface SecondaryHash {
-	public int hasCode2();
-}
-
 // an implementation of a hash table using double hashing as a collision resolution technique
 public class HashTableDoubleHashing<K extends SecondaryHash, V> extends HashTableOpenAddresingBase<K, V> {
 
@@ -24,6 +18,17 @@ public class HashTableDoubleHashing<K extends SecondaryHash, V> extends HashTabl
 		super(capacity, loadFactor);
 	}
 
+	// 'recordStats' turns on the statistics returned by stats()
+	public HashTableDoubleHashing(int capacity, double loadFactor, boolean recordStats) {
+		super(capacity, loadFactor, recordStats);
+	}
+
+	// 'incrementalResize' spreads the moving of the keys of every resize over the
+	// following inserts and removes instead of moving them all at once
+	public HashTableDoubleHashing(int capacity, double loadFactor, boolean recordStats, boolean incrementalResize) {
+		super(capacity, loadFactor, recordStats, incrementalResize);
+	}
+
 	@Override
 	protected void setupProbing(K key) {
 		// catch second hash value
@@ -44,7 +49,7 @@ public class HashTableDoubleHashing<K extends SecondaryHash, V> extends HashTabl
 	// probing so that all the cells can be reached
 	@Override
 	protected void adjustCapacity() {
-		while (!(new BigInteger(String.valueOf(capacity)).isProbablePrime(20))) {
+		while (!isPrime(capacity)) {
 			capacity++;
 		}
 
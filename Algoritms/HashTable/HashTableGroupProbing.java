@@ -0,0 +1,500 @@
+package HashTable;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// an open addressing hash table in the style of the "Swiss table". Next to the keys and
+// values lives an array of one byte control words, one per slot, telling whether the slot
+// is empty, deleted or full and in the latter case holding 7 bits of the key's hash (its tag).
+//
+// the slots are split into groups of 8 whose control bytes are packed into a single long,
+// a lookup probes group by group and tests all 8 tags at once with SWAR (SIMD within a
+// register) bit tricks, so equals is only called on slots whose tag matches. The capacity
+// is always a power of two, turning every modulo into a mask, and the groups are visited
+// in triangular order (1, 2, 3, ... groups apart) which reaches every group of the table.
+public class HashTableGroupProbing<K, V> implements Iterable<K> {
+
+	private static final int GROUP_WIDTH = 8;
+	private static final long LSB = 0x0101010101010101L, MSB = 0x8080808080808080L;
+
+	// control bytes, a full slot holds its 7 bit tag so the high bit tells the
+	// special values apart. EMPTY and DELETED are told apart by bit 6
+	private static final int EMPTY = 0x80, DELETED = 0xFE;
+	private static final long ALL_EMPTY = LSB * EMPTY;
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final double DEFAULT_LOAD_FACTOR = 0.875;
+
+	private final double loadFactor;
+	private int capacity, groupMask, keyCount, modificationCount = 0;
+
+	// the number of empty slots that may still be filled before the table has to grow,
+	// deleted slots are not counted as empty since they do not end a probe sequence
+	private int growthLeft;
+
+	private long[] ctrl;
+	private K[] keys;
+	private V[] values;
+
+	// null unless statistics were requested at construction, the
+	// probe lengths it records count groups rather than slots
+	private final HashTableStats stats;
+
+	public HashTableGroupProbing() {
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+	}
+
+	public HashTableGroupProbing(int capacity) {
+		this(capacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public HashTableGroupProbing(int capacity, double loadFactor) {
+		this(capacity, loadFactor, false);
+	}
+
+	// designated constructor, 'recordStats' turns on the statistics returned by stats()
+	public HashTableGroupProbing(int capacity, double loadFactor, boolean recordStats) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		if (!(loadFactor > 0 && loadFactor < 1))
+			throw new IllegalArgumentException("illegal loadFactor: " + loadFactor);
+
+		this.loadFactor = loadFactor;
+		this.stats = recordStats ? new HashTableStats() : null;
+		allocate(tableSizeFor(Math.max(GROUP_WIDTH, capacity)));
+	}
+
+	// returns the smallest power of two >= n
+	private static int tableSizeFor(int n) {
+		return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		this.capacity = capacity;
+		groupMask = capacity / GROUP_WIDTH - 1;
+		ctrl = new long[capacity / GROUP_WIDTH];
+		Arrays.fill(ctrl, ALL_EMPTY);
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		growthLeft = maxLoad(capacity) - keyCount;
+	}
+
+	// the most keys a table of this capacity may hold, at least one slot stays
+	// empty so that the probing of a missing key always comes to an end
+	private int maxLoad(int capacity) {
+		return Math.min(capacity - 1, (int) (capacity * loadFactor));
+	}
+
+	// spreads the hash code, the group index is taken from the low bits and the
+	// tag from the top 7 bits of the result
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	private static int tag(int hash) {
+		return hash >>> 25;
+	}
+
+	// the bytes of 'group' equal to 'tag' have their high bit set in the result. The
+	// subtraction may also flag a byte right above a real match, those false positives
+	// are harmless as every candidate is verified with equals anyway
+	private static long matchTag(long group, int tag) {
+		long x = group ^ (LSB * tag);
+		return (x - LSB) & ~x & MSB;
+	}
+
+	// the EMPTY bytes of 'group', the only control bytes with bit 7 set and bit 6 clear
+	private static long matchEmpty(long group) {
+		return group & (~group << 1) & MSB;
+	}
+
+	// the EMPTY or DELETED bytes of 'group', the only control bytes with bit 7 set
+	private static long matchEmptyOrDeleted(long group) {
+		return group & MSB;
+	}
+
+	// the slot within its group of the lowest byte flagged in a match mask
+	private static int lowestSlot(long match) {
+		return Long.numberOfTrailingZeros(match) >>> 3;
+	}
+
+	private int ctrlAt(int slot) {
+		return (int) (ctrl[slot >>> 3] >>> ((slot & 7) << 3)) & 0xFF;
+	}
+
+	private void setCtrl(int slot, int value) {
+		int shift = (slot & 7) << 3;
+		long group = ctrl[slot >>> 3];
+		ctrl[slot >>> 3] = (group & ~(0xFFL << shift)) | ((long) value << shift);
+	}
+
+	public void clear() {
+		Arrays.fill(ctrl, ALL_EMPTY);
+		Arrays.fill(keys, null);
+		Arrays.fill(values, null);
+		keyCount = 0;
+		growthLeft = maxLoad(capacity);
+		modificationCount++;
+	}
+
+	// currently keys inside the hash-table
+	public int size() {
+		return keyCount;
+	}
+
+	// returns the capacity of the hash table
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public boolean isEmpty() {
+		return keyCount == 0;
+	}
+
+	// the statistics of this table, refreshing its occupancy figures takes O(capacity)
+	public HashTableStats stats() {
+		if (stats == null)
+			throw new IllegalStateException("statistics are not recorded by this table");
+		int deleted = 0;
+		for (int i = 0; i < capacity; i++)
+			if (ctrlAt(i) == DELETED)
+				deleted++;
+		stats.occupancy(keyCount, capacity, deleted, HashTableStats.longestRun(capacity, i -> ctrlAt(i) != EMPTY));
+		return stats;
+	}
+
+	public V put(K key, V value) {
+		return insert(key, value);
+	}
+
+	public V add(K key, V value) {
+		return insert(key, value);
+	}
+
+	// returns boolean on whether a given key exists within the hash table
+	public boolean containsKey(K key) {
+		return hasKey(key);
+	}
+
+	public boolean hasKey(K key) {
+		if (key == null)
+			throw new IllegalArgumentException("null key");
+		return findSlot(key, hash(key)) != -1;
+	}
+
+	// get the value associated with the input key.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V get(K key) {
+		if (key == null)
+			throw new IllegalArgumentException("Null key");
+		int slot = findSlot(key, hash(key));
+		return slot == -1 ? null : values[slot];
+	}
+
+	// returns the slot holding 'key' or -1 if the key is not in the table
+	private int findSlot(Object key, int hash) {
+		final int tag = tag(hash);
+		for (int g = hash & groupMask, step = 1;; g = (g + step++) & groupMask) {
+			final long group = ctrl[g];
+			for (long match = matchTag(group, tag); match != 0; match &= match - 1) {
+				int slot = g * GROUP_WIDTH + lowestSlot(match);
+				if (key.equals(keys[slot])) {
+					if (stats != null)
+						stats.recordHit(step);
+					return slot;
+				}
+			}
+			// an empty slot means the key would have been placed in this group
+			if (matchEmpty(group) != 0) {
+				if (stats != null)
+					stats.recordMiss(step);
+				return -1;
+			}
+		}
+	}
+
+	// returns the first empty or deleted slot along the probe sequence of 'hash'
+	private int findInsertSlot(int hash) {
+		for (int g = hash & groupMask, step = 1;; g = (g + step++) & groupMask) {
+			long free = matchEmptyOrDeleted(ctrl[g]);
+			if (free != 0)
+				return g * GROUP_WIDTH + lowestSlot(free);
+		}
+	}
+
+	// place a key-value pair into the hash-table. If the value already
+	// exists inside the hash-table then the value is updated
+	public V insert(K key, V val) {
+		if (key == null)
+			throw new IllegalArgumentException("Null key");
+
+		final int hash = hash(key);
+		int slot = findSlot(key, hash);
+		if (slot != -1) {
+			V oldValue = values[slot];
+			values[slot] = val;
+			modificationCount++;
+			return oldValue;
+		}
+
+		if (growthLeft == 0)
+			resizeTable();
+
+		slot = findInsertSlot(hash);
+		if (ctrlAt(slot) == EMPTY)
+			growthLeft--;
+		setCtrl(slot, tag(hash));
+		keys[slot] = key;
+		values[slot] = val;
+		keyCount++;
+		modificationCount++;
+		return null;
+	}
+
+	// removes a key from the map and returns the value.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V remove(K key) {
+		if (key == null)
+			throw new IllegalArgumentException("null key");
+
+		int slot = findSlot(key, hash(key));
+		if (slot == -1)
+			return null;
+
+		// a probe sequence only ever walks past a group without empty slots,
+		// so when this group still has one the slot can go back to being empty
+		if (matchEmpty(ctrl[slot >>> 3]) != 0) {
+			setCtrl(slot, EMPTY);
+			growthLeft++;
+		} else {
+			setCtrl(slot, DELETED);
+		}
+
+		V oldValue = values[slot];
+		keys[slot] = null;
+		values[slot] = null;
+		keyCount--;
+		modificationCount++;
+		return oldValue;
+	}
+
+	// doubles the table, or when most of the used slots are deleted
+	// ones just rebuilds it at the same capacity to clear them out
+	private void resizeTable() {
+		final long start = stats == null ? 0 : System.nanoTime();
+		long[] oldCtrl = ctrl;
+		K[] oldKeys = keys;
+		V[] oldValues = values;
+
+		int newCapacity = keyCount >= maxLoad(capacity) / 2 ? capacity * 2 : capacity;
+		allocate(newCapacity);
+
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if ((oldCtrl[slot >>> 3] >>> ((slot & 7) << 3) & 0x80) != 0)
+				continue;
+			K key = oldKeys[slot];
+			int hash = hash(key);
+			int newSlot = findInsertSlot(hash);
+			setCtrl(newSlot, tag(hash));
+			keys[newSlot] = key;
+			values[newSlot] = oldValues[slot];
+		}
+
+		if (stats != null)
+			stats.recordResize(System.nanoTime() - start);
+	}
+
+	// returns a list of keys found in the hash table
+	public List<K> keys() {
+		List<K> hashTableKeys = new ArrayList<>(size());
+		for (int i = 0; i < capacity; i++) {
+			if (ctrlAt(i) < EMPTY)
+				hashTableKeys.add(keys[i]);
+		}
+		return hashTableKeys;
+	}
+
+	// returns a list of non-unique values in the hash table
+	public List<V> values() {
+		List<V> hashTableValues = new ArrayList<>(size());
+		for (int i = 0; i < capacity; i++) {
+			if (ctrlAt(i) < EMPTY)
+				hashTableValues.add(values[i]);
+		}
+		return hashTableValues;
+	}
+
+	// writes a snapshot of the table to 'channel', see Snapshots for the format. The
+	// deleted slots are written as tombstones. The channel is left open
+	public void writeTo(WritableByteChannel channel, KeyCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec)
+			throws IOException {
+		Snapshots.Writer<K, V> writer = new Snapshots.Writer<>(channel, keyCodec, valueCodec, this, capacity, keyCount,
+				maxLoad(capacity) - growthLeft);
+		for (int i = 0; i < capacity; i++) {
+			int c = ctrlAt(i);
+			if (c == DELETED)
+				writer.tombstone(i);
+			else if (c < EMPTY)
+				writer.entry(i, hash(keys[i]), keys[i], values[i]);
+		}
+		writer.finish();
+	}
+
+	// replaces the contents of the table with a snapshot read from 'channel'. A snapshot
+	// written by a table of this class is put back slot for slot, its control bytes rebuilt
+	// from the stored hashes, as long as its keys still hash the same and it is not fuller
+	// than this table's load factor allows. Otherwise, or for a snapshot of another kind
+	// of table, the keys are inserted again
+	@SuppressWarnings("unchecked")
+	public void readFrom(ReadableByteChannel channel, KeyCodec<? extends K> keyCodec,
+			ValueCodec<? extends V> valueCodec) throws IOException {
+		Snapshots.Reader<K, V> reader = new Snapshots.Reader<>(channel, keyCodec, valueCodec);
+
+		if (!reader.writtenBy(this)) {
+			keyCount = 0;
+			allocate(capacityFor(reader.keyCount));
+			modificationCount++;
+			while (reader.next()) {
+				if (!reader.tombstone) {
+					placeNew(hash(reader.key), reader.key, reader.value);
+					keyCount++;
+				}
+			}
+			return;
+		}
+
+		if (Integer.bitCount(reader.capacity) != 1 || reader.capacity < GROUP_WIDTH
+				|| reader.records >= reader.capacity)
+			throw new IOException("Corrupt snapshot header");
+
+		long[] slotCtrl = new long[reader.capacity / GROUP_WIDTH];
+		Arrays.fill(slotCtrl, ALL_EMPTY);
+		K[] slotKeys = (K[]) new Object[reader.capacity];
+		V[] slotValues = (V[]) new Object[reader.capacity];
+		int entries = 0;
+		boolean sameHashes = true;
+
+		while (reader.next()) {
+			int shift = (reader.slot & 7) << 3;
+			long group = slotCtrl[reader.slot >>> 3];
+			if ((group >>> shift & 0xFF) != EMPTY)
+				throw new IOException("Corrupt snapshot record at slot " + reader.slot);
+
+			int c = DELETED;
+			if (!reader.tombstone) {
+				c = tag(reader.hash);
+				slotKeys[reader.slot] = reader.key;
+				slotValues[reader.slot] = reader.value;
+				sameHashes &= hash(reader.key) == reader.hash;
+				entries++;
+			}
+			slotCtrl[reader.slot >>> 3] = (group & ~(0xFFL << shift)) | ((long) c << shift);
+		}
+
+		if (entries != reader.keyCount)
+			throw new IOException("Corrupt snapshot, " + entries + " keys instead of " + reader.keyCount);
+
+		modificationCount++;
+		if (sameHashes && reader.records <= maxLoad(reader.capacity)) {
+			keyCount = entries;
+			capacity = reader.capacity;
+			groupMask = capacity / GROUP_WIDTH - 1;
+			ctrl = slotCtrl;
+			keys = slotKeys;
+			values = slotValues;
+			growthLeft = maxLoad(capacity) - reader.records;
+		} else {
+			keyCount = 0;
+			allocate(capacityFor(entries));
+			for (int i = 0; i < slotKeys.length; i++) {
+				if (slotKeys[i] != null) {
+					placeNew(hash(slotKeys[i]), slotKeys[i], slotValues[i]);
+					keyCount++;
+				}
+			}
+		}
+	}
+
+	// puts a key known not to be in the table into the first free slot of its probe sequence,
+	// the caller is left to count the key and to make sure it fits below the load factor
+	private void placeNew(int hash, K key, V val) {
+		int slot = findInsertSlot(hash);
+		if (ctrlAt(slot) == EMPTY)
+			growthLeft--;
+		setCtrl(slot, tag(hash));
+		keys[slot] = key;
+		values[slot] = val;
+	}
+
+	// the smallest capacity which holds 'keys' keys without a resize
+	private int capacityFor(int keys) {
+		int newCapacity = tableSizeFor(Math.max(GROUP_WIDTH, keys));
+		while (maxLoad(newCapacity) < keys)
+			newCapacity *= 2;
+		return newCapacity;
+	}
+
+	// return a string view of this hash-table
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		for (int i = 0; i < capacity; i++) {
+			if (ctrlAt(i) < EMPTY)
+				sb.append(keys[i] + " => " + values[i] + ",");
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	@Override
+	public Iterator<K> iterator() {
+		// before the iteration begins record the number of modifications
+		// done to he hash-table. This value should not change as we iterate
+		// otherwise a concurrent modification has occurred
+		final int MODIFICATION_COUNT = modificationCount;
+
+		return new Iterator<K>() {
+			int index, keysLeft = keyCount;
+
+			@Override
+			public boolean hasNext() {
+				// the contents of the table have been altered
+				if (MODIFICATION_COUNT != modificationCount)
+					throw new ConcurrentModificationException();
+				return keysLeft != 0;
+			}
+
+			// find the next element and return it
+			@Override
+			public K next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				while (ctrlAt(index) >= EMPTY)
+					index++;
+				keysLeft--;
+				return keys[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
@@ -21,6 +21,17 @@ public class HashTableLinearProbing<K, V> extends HashTableOpenAddresingBase<K,
 		super(capacity, loadFactor);
 	}
 
+	// 'recordStats' turns on the statistics returned by stats()
+	public HashTableLinearProbing(int capacity, double loadFactor, boolean recordStats) {
+		super(capacity, loadFactor, recordStats);
+	}
+
+	// 'incrementalResize' spreads the moving of the keys of every resize over the
+	// following inserts and removes instead of moving them all at once
+	public HashTableLinearProbing(int capacity, double loadFactor, boolean recordStats, boolean incrementalResize) {
+		super(capacity, loadFactor, recordStats, incrementalResize);
+	}
+
 	@Override
 	protected void setupProbing(K key) {
 	}
@@ -1,5 +1,8 @@
 package HashTable;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
@@ -21,6 +24,24 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 	protected K[] keys;
 	protected V[] values;
 
+	// null unless statistics were requested at construction. Lookups that fall
+	// back on the old arrays during a resize only count their probes in the new ones
+	private final HashTableStats stats;
+
+	// with incremental resizing a resize only allocates the new arrays, the keys are then
+	// moved over from the old arrays a few slots at a time by the following inserts and
+	// removes, the way Redis rehashes its dicts. This spreads the cost of a resize evenly
+	// instead of stalling a single insert. While 'oldKeys' is not null the migration is
+	// in progress: the slots of the old arrays before 'migrateIndex' have been moved and
+	// hold TOMBSTONEs so that the probing of the old arrays still goes past them
+	private final boolean incrementalResize;
+	private K[] oldKeys;
+	private V[] oldValues;
+	private int oldCapacity, oldKeyCount, migrateIndex, migrationStep;
+
+	// the least number of old slots moved by every insert and remove
+	private static final int MIGRATION_STEP = 8;
+
 	// special marker token used to indicate the deletion of a key-value pair
 	@SuppressWarnings("unchecked")
 	protected final K TOMBSTONE = (K) (new Object());
@@ -36,9 +57,18 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 		this(capacity, DEFAULT_LOAD_FACTOR);
 	}
 
+	protected HashTableOpenAddresingBase(int capacity, double loadFactor) {
+		this(capacity, loadFactor, false);
+	}
+
+	protected HashTableOpenAddresingBase(int capacity, double loadFactor, boolean recordStats) {
+		this(capacity, loadFactor, recordStats, false);
+	}
+
 	// designated constructor
 	@SuppressWarnings("unchecked")
-	protected HashTableOpenAddresingBase(int capacity, double loadFactor) {
+	protected HashTableOpenAddresingBase(int capacity, double loadFactor, boolean recordStats,
+			boolean incrementalResize) {
 		if (capacity <= 0)
 			throw new IllegalArgumentException("Illegal capacity: " + capacity);
 
@@ -53,6 +83,8 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 
 		keys = (K[]) new Object[this.capacity];
 		values = (V[]) new Object[this.capacity];
+		stats = recordStats ? new HashTableStats() : null;
+		this.incrementalResize = incrementalResize;
 	}
 
 	// these three methods are used to dictate how the probing is to actually
@@ -77,6 +109,9 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 			values[i] = null;
 		}
 		keyCount = usedBukects = 0;
+		oldKeys = null;
+		oldValues = null;
+		oldKeyCount = 0;
 		modificationCount++;
 	}
 
@@ -94,6 +129,20 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 		return keyCount == 0;
 	}
 
+	// whether an incremental resize is still moving keys out of the old arrays
+	public boolean isResizing() {
+		return oldKeys != null;
+	}
+
+	// the statistics of this table, refreshing its occupancy figures takes O(capacity)
+	public HashTableStats stats() {
+		if (stats == null)
+			throw new IllegalStateException("statistics are not recorded by this table");
+		stats.occupancy(keyCount, capacity, usedBukects - (keyCount - oldKeyCount),
+				HashTableStats.longestRun(capacity, i -> keys[i] != null));
+		return stats;
+	}
+
 	public V put(K key, V value) {
 		return insert(key, value);
 	}
@@ -114,6 +163,10 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 			if (keys[i] != null && keys[i] != TOMBSTONE)
 				hashTableKeys.add(keys[i]);
 		}
+		for (int i = 0; oldKeys != null && i < oldCapacity; i++) {
+			if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE)
+				hashTableKeys.add(oldKeys[i]);
+		}
 		return hashTableKeys;
 	}
 
@@ -124,38 +177,253 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 			if (keys[i] != null && keys[i] != TOMBSTONE)
 				hashTableValues.add(values[i]);
 		}
+		for (int i = 0; oldKeys != null && i < oldCapacity; i++) {
+			if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE)
+				hashTableValues.add(oldValues[i]);
+		}
 		return hashTableValues;
 	}
 
-	// double the size of the hash table
-	@SuppressWarnings("unchecked")
+	// double the size of the hash table. When most of the used buckets are only
+	// tombstones the table is rebuilt at the same capacity instead, otherwise a
+	// delete heavy workload would keep doubling the table without bound
 	protected void resizeTable() {
-		increaseCapacity();
-		adjustCapacity();
+		resizeTable(0);
+	}
+
+	// resizes the table like resizeTable(), but keeps growing the capacity
+	// until 'expectedKeys' keys fit below the threshold
+	@SuppressWarnings("unchecked")
+	private void resizeTable(int expectedKeys) {
+		final long start = stats == null ? 0 : System.nanoTime();
+
+		// a resize can only begin once the keys of the previous one have all been moved
+		if (oldKeys != null)
+			migrate(oldCapacity);
+
+		K[] oldKeyTable = keys;
+		V[] oldValueTable = values;
+		final int oldTableCapacity = capacity;
+
+		if (keyCount >= threshold / 2 || threshold <= expectedKeys) {
+			do {
+				increaseCapacity();
+				adjustCapacity();
+			} while ((int) (capacity * loadFactor) <= expectedKeys);
+		}
 
 		threshold = (int) (capacity * loadFactor);
-		K[] oldKeyTable = (K[]) new Object[capacity];
-		V[] oldValueTable = (V[]) new Object[capacity];
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+
+		// all the keys are about to be moved into the new arrays
+		usedBukects = 0;
+
+		if (incrementalResize) {
+			oldKeys = oldKeyTable;
+			oldValues = oldValueTable;
+			oldCapacity = oldTableCapacity;
+			oldKeyCount = keyCount;
+			migrateIndex = 0;
+
+			// every insert adds at most one used bucket besides the moved keys, so moving this
+			// many slots per operation finishes the migration before the new arrays are full
+			int operationsLeft = Math.max(1, threshold - keyCount);
+			migrationStep = Math.max(MIGRATION_STEP, (oldCapacity + operationsLeft - 1) / operationsLeft);
+		} else {
+			for (int i = 0; i < oldKeyTable.length; i++) {
+				if (oldKeyTable[i] != null && oldKeyTable[i] != TOMBSTONE)
+					moveIn(oldKeyTable[i], oldValueTable[i]);
+				oldValueTable[i] = null;
+				oldKeyTable[i] = null;
+			}
+		}
 
-		// perform key table pointer swap
-		K[] keyTableTmp = keys;
-		keys = oldKeyTable;
-		oldKeyTable = keyTableTmp;
+		if (stats != null)
+			stats.recordResize(System.nanoTime() - start);
+	}
 
-		// perform value table pointer swap
-		V[] valuesTableTmp = values;
-		values = oldValueTable;
-		oldValueTable = valuesTableTmp;
+	// moves the keys of up to 'slots' old slots into the new arrays
+	private void migrate(int slots) {
+		final long start = stats == null ? 0 : System.nanoTime();
+
+		for (; slots > 0 && migrateIndex < oldCapacity && oldKeyCount > 0; slots--, migrateIndex++) {
+			K key = oldKeys[migrateIndex];
+			if (key != null && key != TOMBSTONE) {
+				moveIn(key, oldValues[migrateIndex]);
+				oldKeys[migrateIndex] = TOMBSTONE;
+				oldValues[migrateIndex] = null;
+				oldKeyCount--;
+			}
+		}
 
-		// reset the key count and buckets used since we are about to
-		// re-insert all the keys into the hash-table.
-		keyCount = usedBukects = 0;
+		// once every key is moved the old arrays are dropped
+		if (migrateIndex == oldCapacity || oldKeyCount == 0) {
+			oldKeys = null;
+			oldValues = null;
+		}
+
+		if (stats != null)
+			stats.recordResizeTime(System.nanoTime() - start);
+	}
+
+	// places a key known not to be in the new arrays into the first free slot of its
+	// probe sequence, without the threshold check and the lookup of an insert
+	private void moveIn(K key, V val) {
+		setupProbing(key);
+		final int offset = normalizeIndex(key.hashCode());
+
+		for (int i = offset, x = 1;; i = normalizeIndex(offset + probe(x++))) {
+			if (keys[i] == null || keys[i] == TOMBSTONE) {
+				if (keys[i] == null)
+					usedBukects++;
+				keys[i] = key;
+				values[i] = val;
+				return;
+			}
+		}
+	}
+
+	// returns the slot holding 'key' in the old arrays or -1 if it is not there. The probe
+	// sequences depend on the capacity, so the old one is put back for the duration of the
+	// search. This also resets the probing set up for the key in the new arrays
+	private int oldSlotOf(K key) {
+		final int newCapacity = capacity;
+		capacity = oldCapacity;
+		try {
+			setupProbing(key);
+			final int offset = normalizeIndex(key.hashCode());
+
+			for (int i = offset, x = 1;; i = normalizeIndex(offset + probe(x++))) {
+				if (oldKeys[i] == null)
+					return -1;
+				if (oldKeys[i] != TOMBSTONE && oldKeys[i].equals(key))
+					return i;
+			}
+		} finally {
+			capacity = newCapacity;
+		}
+	}
+
+	// the number of keys whose home slots are loaded ahead of resolving them in the batch
+	// operations. The loads of a group do not depend on each other, so their cache misses
+	// overlap instead of each key stalling on its own
+	private static final int BATCH_GROUP = 16;
+
+	// inserts keys[i] => values[i] for every i, the same as calling insert in a loop. The
+	// table is grown once up front for the whole batch, then the keys are placed group by
+	// group. A key whose home slot is empty or holds the key itself is settled right there,
+	// the others go through insert
+	public void putAll(K[] batchKeys, V[] batchValues) {
+		if (batchKeys.length != batchValues.length)
+			throw new IllegalArgumentException("keys and values differ in length");
+
+		// every key may need a bucket of its own, or one of a key still in the old arrays
+		if (usedBukects + oldKeyCount + batchKeys.length >= threshold)
+			resizeTable(keyCount + batchKeys.length);
+
+		final int[] homes = new int[BATCH_GROUP];
+		final Object[] firsts = new Object[BATCH_GROUP];
+
+		for (int from = 0; from < batchKeys.length; from += BATCH_GROUP) {
+			final int n = Math.min(BATCH_GROUP, batchKeys.length - from);
+			loadHomeSlots(batchKeys, from, n, homes, firsts);
+
+			for (int j = 0; j < n; j++) {
+				K key = batchKeys[from + j];
+				Object first = firsts[j];
+				int i = homes[j];
+
+				// an earlier key of the group may have changed the slot since it was loaded
+				if (first != keys[i] || oldKeys != null) {
+					insert(key, batchValues[from + j]);
+				} else if (first == null && usedBukects < threshold) {
+					keys[i] = key;
+					values[i] = batchValues[from + j];
+					usedBukects++;
+					keyCount++;
+					modificationCount++;
+					if (stats != null)
+						stats.recordMiss(1);
+				} else if (first != null && first != TOMBSTONE && key.equals(first)) {
+					values[i] = batchValues[from + j];
+					modificationCount++;
+					if (stats != null)
+						stats.recordHit(1);
+				} else {
+					insert(key, batchValues[from + j]);
+				}
+			}
+		}
+	}
+
+	// stores the value of keys[i] into out[i] for every i, the same as calling get in a loop
+	public void getAll(K[] batchKeys, V[] out) {
+		if (out.length < batchKeys.length)
+			throw new IllegalArgumentException("output array is too short");
+		lookupAll(batchKeys, out);
+	}
+
+	// returns whether every key of the batch is inside the hash table
+	public boolean containsAll(K[] batchKeys) {
+		return lookupAll(batchKeys, null);
+	}
+
+	// looks up the keys group by group, storing their values into 'out' when it is not null.
+	// Otherwise stops at the first missing key, returns whether all the keys were found
+	private boolean lookupAll(K[] batchKeys, V[] out) {
+		final int[] homes = new int[BATCH_GROUP];
+		final Object[] firsts = new Object[BATCH_GROUP];
+		boolean foundAll = true;
+
+		for (int from = 0; from < batchKeys.length; from += BATCH_GROUP) {
+			final int n = Math.min(BATCH_GROUP, batchKeys.length - from);
+			loadHomeSlots(batchKeys, from, n, homes, firsts);
+
+			for (int j = 0; j < n; j++) {
+				K key = batchKeys[from + j];
+				Object first = firsts[j];
+				boolean found;
+
+				// the probing of a key ends at an empty slot, so an empty home slot is a miss
+				// right away unless the key may still be in the old arrays of a resize
+				if (first == null && oldKeys == null) {
+					if (stats != null)
+						stats.recordMiss(1);
+					if (out != null)
+						out[from + j] = null;
+					found = false;
+				} else if (first != null && first != TOMBSTONE && key.equals(first)) {
+					if (stats != null)
+						stats.recordHit(1);
+					if (out != null)
+						out[from + j] = values[homes[j]];
+					found = true;
+				} else if (out != null) {
+					out[from + j] = get(key);
+					found = true;
+				} else {
+					found = hasKey(key);
+				}
+
+				if (!found) {
+					if (out == null)
+						return false;
+					foundAll = false;
+				}
+			}
+		}
+		return foundAll;
+	}
 
-		for (int i = 0; i < oldKeyTable.length; i++) {
-			if (oldKeyTable[i] != null && oldKeyTable[i] != TOMBSTONE)
-				insert(oldKeyTable[i], oldValueTable[i]);
-			oldValueTable[i] = null;
-			oldKeyTable[i] = null;
+	// computes the home slots of keys[from, from + n) and loads their contents
+	private void loadHomeSlots(K[] batchKeys, int from, int n, int[] homes, Object[] firsts) {
+		for (int j = 0; j < n; j++) {
+			K key = batchKeys[from + j];
+			if (key == null)
+				throw new IllegalArgumentException("Null key");
+			homes[j] = normalizeIndex(key.hashCode());
+			firsts[j] = keys[homes[j]];
 		}
 	}
 
@@ -172,11 +440,26 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 		return gcd(b, a % b);
 	}
 
+	// deterministic primality test by trial division, the capacities
+	// are small enough that this is much cheaper than BigInteger
+	protected static final boolean isPrime(int n) {
+		if (n < 2)
+			return false;
+		if (n % 2 == 0)
+			return n == 2;
+		for (int d = 3; d <= n / d; d += 2)
+			if (n % d == 0)
+				return false;
+		return true;
+	}
+
 	// place a key-value pair into the hash-table. If the value already
 	// exists inside the hash-table then the value is updated
 	public V insert(K key, V val) {
 		if (key == null)
 			throw new IllegalArgumentException("Null key");
+		if (oldKeys != null)
+			migrate(migrationStep);
 		if (usedBukects >= threshold)
 			resizeTable();
 
@@ -202,15 +485,31 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 					} else {
 						keys[i] = TOMBSTONE;
 						values[i] = null;
-						keys[i] = key;
+						keys[j] = key;
 						values[j] = val;
 					}
 					modificationCount++;
+					if (stats != null)
+						stats.recordHit(x);
 					return oldValue;
 				}
 
 				// current cell is null so an insertion/update can occur
 			} else {
+				// while resizing the key may still be in the old arrays, it is taken out
+				// of them and the insertion goes on as the update of its value
+				V oldValue = null;
+				if (oldKeys != null) {
+					int slot = oldSlotOf(key);
+					if (slot != -1) {
+						oldValue = oldValues[slot];
+						oldKeys[slot] = TOMBSTONE;
+						oldValues[slot] = null;
+						oldKeyCount--;
+						keyCount--;
+					}
+				}
+
 				// no previously encountered deleted buckets
 				if (j == -1) {
 					usedBukects++;
@@ -228,7 +527,9 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 				}
 
 				modificationCount++;
-				return null;
+				if (stats != null)
+					stats.recordMiss(x);
+				return oldValue;
 
 			}
 		}
@@ -262,17 +563,27 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 					// found faster. this is called lazy deletion/relocation
 					if (j != -1) {
 						// swap the key-value pairs of position i and j.
-						keys[i] = keys[i];
-						values[j] = values[j];
+						keys[j] = keys[i];
+						values[j] = values[i];
 						keys[i] = TOMBSTONE;
 						values[i] = null;
 					}
+					if (stats != null)
+						stats.recordHit(x);
 					return true;
 				}
 
 				// key was not found in the hash-table
-			} else
-				return false;
+			} else {
+				boolean found = oldKeys != null && oldSlotOf(key) != -1;
+				if (stats != null) {
+					if (found)
+						stats.recordHit(x);
+					else
+						stats.recordMiss(x);
+				}
+				return found;
+			}
 		}
 	}
 
@@ -302,6 +613,8 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 
 				// the key we want is in the hash-table
 				if (keys[i].equals(key)) {
+					if (stats != null)
+						stats.recordHit(x);
 
 					// if j!=-1 this means we previously encountered a deleted cell.
 					// we can perform an optimization by swapping the entries in cells/
@@ -320,8 +633,16 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 					}
 				}
 				// element was not found in the hash-table
-			} else
-				return null;
+			} else {
+				int slot = oldKeys == null ? -1 : oldSlotOf(key);
+				if (stats != null) {
+					if (slot != -1)
+						stats.recordHit(x);
+					else
+						stats.recordMiss(x);
+				}
+				return slot == -1 ? null : oldValues[slot];
+			}
 		}
 	}
 
@@ -331,6 +652,8 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 	public V remove(K key) {
 		if (key == null)
 			throw new IllegalArgumentException("null key");
+		if (oldKeys != null)
+			migrate(migrationStep);
 
 		setupProbing(key);
 		final int offset = normalizeIndex(key.hashCode());
@@ -343,9 +666,26 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 			if (keys[i] == TOMBSTONE)
 				continue;
 
-			// key was not found in hash-table
-			if (keys[i] == null)
-				return null;
+			// key was not found in hash-table, but it may not have been moved yet
+			if (keys[i] == null) {
+				int slot = oldKeys == null ? -1 : oldSlotOf(key);
+				if (stats != null) {
+					if (slot != -1)
+						stats.recordHit(x);
+					else
+						stats.recordMiss(x);
+				}
+				if (slot == -1)
+					return null;
+
+				keyCount--;
+				oldKeyCount--;
+				modificationCount++;
+				V oldValue = oldValues[slot];
+				oldKeys[slot] = TOMBSTONE;
+				oldValues[slot] = null;
+				return oldValue;
+			}
 
 			// the key we want to remove is in the hash-table
 			if (keys[i].equals(key)) {
@@ -354,11 +694,112 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 				V oldValue = values[i];
 				keys[i] = TOMBSTONE;
 				values[i] = null;
+				if (stats != null)
+					stats.recordHit(x);
 				return oldValue;
 			}
 		}
 	}
 
+	// writes a snapshot of the table to 'channel', see Snapshots for the format. An
+	// incremental resize in progress is finished first. The channel is left open
+	public void writeTo(WritableByteChannel channel, KeyCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec)
+			throws IOException {
+		if (oldKeys != null)
+			migrate(oldCapacity);
+
+		Snapshots.Writer<K, V> writer = new Snapshots.Writer<>(channel, keyCodec, valueCodec, this, capacity, keyCount,
+				usedBukects);
+		for (int i = 0; i < capacity; i++) {
+			if (keys[i] == TOMBSTONE)
+				writer.tombstone(i);
+			else if (keys[i] != null)
+				writer.entry(i, keys[i].hashCode(), keys[i], values[i]);
+		}
+		writer.finish();
+	}
+
+	// replaces the contents of the table with a snapshot read from 'channel'. A snapshot
+	// written by a table of this class is put back slot for slot, tombstones included,
+	// without probing as long as its keys still have the hash codes they were written
+	// with. Otherwise, or for a snapshot of another kind of table, the keys are inserted again
+	@SuppressWarnings("unchecked")
+	public void readFrom(ReadableByteChannel channel, KeyCodec<? extends K> keyCodec,
+			ValueCodec<? extends V> valueCodec) throws IOException {
+		Snapshots.Reader<K, V> reader = new Snapshots.Reader<>(channel, keyCodec, valueCodec);
+
+		if (!reader.writtenBy(this)) {
+			reset(reader.keyCount);
+			while (reader.next())
+				if (!reader.tombstone)
+					insert(reader.key, reader.value);
+			return;
+		}
+
+		// at least one slot has to stay free for the probing of a missing key to end
+		if (reader.records >= reader.capacity)
+			throw new IOException("Corrupt snapshot header");
+
+		K[] slotKeys = (K[]) new Object[reader.capacity];
+		V[] slotValues = (V[]) new Object[reader.capacity];
+		int entries = 0;
+		boolean sameHashes = true;
+
+		while (reader.next()) {
+			if (slotKeys[reader.slot] != null)
+				throw new IOException("Corrupt snapshot record at slot " + reader.slot);
+			if (reader.tombstone) {
+				slotKeys[reader.slot] = TOMBSTONE;
+			} else {
+				slotKeys[reader.slot] = reader.key;
+				slotValues[reader.slot] = reader.value;
+				sameHashes &= reader.key.hashCode() == reader.hash;
+				entries++;
+			}
+		}
+		if (entries != reader.keyCount)
+			throw new IOException("Corrupt snapshot, " + entries + " keys instead of " + reader.keyCount);
+
+		if (sameHashes) {
+			capacity = reader.capacity;
+			threshold = (int) (capacity * loadFactor);
+			keys = slotKeys;
+			values = slotValues;
+			keyCount = entries;
+			usedBukects = reader.records;
+			oldKeys = null;
+			oldValues = null;
+			oldKeyCount = 0;
+			modificationCount++;
+		} else {
+			reset(entries);
+			for (int i = 0; i < slotKeys.length; i++) {
+				if (slotKeys[i] != null && slotKeys[i] != TOMBSTONE) {
+					moveIn(slotKeys[i], slotValues[i]);
+					keyCount++;
+				}
+			}
+		}
+	}
+
+	// drops all the keys, and any resize in progress, into new arrays large
+	// enough for 'expectedKeys' keys to fit below the threshold
+	@SuppressWarnings("unchecked")
+	private void reset(int expectedKeys) {
+		while ((int) (capacity * loadFactor) <= expectedKeys) {
+			increaseCapacity();
+			adjustCapacity();
+		}
+		threshold = (int) (capacity * loadFactor);
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		keyCount = usedBukects = 0;
+		oldKeys = null;
+		oldValues = null;
+		oldKeyCount = 0;
+		modificationCount++;
+	}
+
 	// return a string view of this hash-table
 	@Override
 	public String toString() {
@@ -368,6 +809,10 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 			if (keys[i] != null && keys[i] != TOMBSTONE)
 				sb.append(keys[i] + " => " + values[i] + ",");
 		}
+		for (int i = 0; oldKeys != null && i < oldCapacity; i++) {
+			if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE)
+				sb.append(oldKeys[i] + " => " + oldValues[i] + ",");
+		}
 		sb.append("}");
 		return sb.toString();
 	}
@@ -379,7 +824,11 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 		// otherwise a concurrent modification has occurred
 		final int MODIFICATION_COUNT = modificationCount;
 
+		// the keys still waiting in the old arrays of a resize come last
+		final K[] oldTable = oldKeys;
+
 		return new Iterator<K>() {
+			K[] table = keys;
 			int index, keysLeft = keyCount;
 
 			@Override
@@ -393,10 +842,17 @@ public abstract class HashTableOpenAddresingBase<K, V> implements Iterable<K> {
 			// find the next element and return it
 			@Override
 			public K next() {
-				while (keys[index] == null || keys[index] == TOMBSTONE)
-					index++;
-				keysLeft--;
-				return keys[index++];
+				while (true) {
+					if (index == table.length) {
+						table = oldTable;
+						index = 0;
+					}
+					K key = table[index++];
+					if (key != null && key != TOMBSTONE) {
+						keysLeft--;
+						return key;
+					}
+				}
 			}
 
 			@Override
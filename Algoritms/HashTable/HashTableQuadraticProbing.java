@@ -23,6 +23,17 @@ public class HashTableQuadraticProbing<K, V> extends HashTableOpenAddresingBase<
 		super(capacity, loadFactor);
 	}
 
+	// 'recordStats' turns on the statistics returned by stats()
+	public HashTableQuadraticProbing(int capacity, double loadFactor, boolean recordStats) {
+		super(capacity, loadFactor, recordStats);
+	}
+
+	// 'incrementalResize' spreads the moving of the keys of every resize over the
+	// following inserts and removes instead of moving them all at once
+	public HashTableQuadraticProbing(int capacity, double loadFactor, boolean recordStats, boolean incrementalResize) {
+		super(capacity, loadFactor, recordStats, incrementalResize);
+	}
+
 	// given a number this method finds the next
 	// power of two above this value
 	private static int nextPowerOfTwo(int n) {
@@ -0,0 +1,452 @@
+package HashTable;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// an open addressing hash table using linear probing with "Robin Hood" hashing.
+//
+// every slot remembers how far its key sits from the slot the key hashes to (its probe
+// distance). While inserting, a key that has travelled further than the occupant of a slot
+// takes the slot over, and the occupant continues probing in its place. This keeps the
+// probe distances short and even, and it lets a lookup stop as soon as it reaches a key
+// closer to home than the one searched for would be.
+//
+// removals use backward shift deletion: the following keys that are not in their home slot
+// are moved one slot back, so the table never contains tombstones and the probe distances
+// do not keep growing on delete heavy workloads.
+public class HashTableRobinHood<K, V> implements Iterable<K> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final double DEFAULT_LOAD_FACTOR = 0.9;
+
+	private final double loadFactor;
+	private int capacity, mask, threshold, keyCount, modificationCount = 0;
+
+	// sum of the probe distances of all the keys, kept up to date
+	// so that the average probe length can be computed in O(1)
+	private long totalDistance;
+
+	private K[] keys;
+	private V[] values;
+
+	// 0 marks an empty slot, otherwise the probe distance of the key plus one
+	private int[] dist;
+
+	// the spread hash of every key, compared before calling equals and reused on resize
+	private int[] hashes;
+
+	// null unless statistics were requested at construction
+	private final HashTableStats stats;
+
+	public HashTableRobinHood() {
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+	}
+
+	public HashTableRobinHood(int capacity) {
+		this(capacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public HashTableRobinHood(int capacity, double loadFactor) {
+		this(capacity, loadFactor, false);
+	}
+
+	// designated constructor, 'recordStats' turns on the statistics returned by stats()
+	public HashTableRobinHood(int capacity, double loadFactor, boolean recordStats) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		if (!(loadFactor > 0 && loadFactor < 1))
+			throw new IllegalArgumentException("illegal loadFactor: " + loadFactor);
+
+		this.loadFactor = loadFactor;
+		this.stats = recordStats ? new HashTableStats() : null;
+		allocate(tableSizeFor(Math.max(DEFAULT_CAPACITY, capacity)));
+	}
+
+	// returns the smallest power of two >= n
+	private static int tableSizeFor(int n) {
+		return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		this.capacity = capacity;
+		mask = capacity - 1;
+		threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		dist = new int[capacity];
+		hashes = new int[capacity];
+	}
+
+	// spreads the hash code since only its lowest bits pick the home slot
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(values, null);
+		Arrays.fill(dist, 0);
+		keyCount = 0;
+		totalDistance = 0;
+		modificationCount++;
+	}
+
+	// currently keys inside the hash-table
+	public int size() {
+		return keyCount;
+	}
+
+	// returns the capacity of the hash table
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public boolean isEmpty() {
+		return keyCount == 0;
+	}
+
+	// the statistics of this table, refreshing its occupancy figures takes O(capacity)
+	public HashTableStats stats() {
+		if (stats == null)
+			throw new IllegalStateException("statistics are not recorded by this table");
+		stats.occupancy(keyCount, capacity, 0, HashTableStats.longestRun(capacity, i -> dist[i] != 0));
+		return stats;
+	}
+
+	// the number of slots a lookup of the worst placed key has to inspect, O(capacity)
+	public int maxProbeLength() {
+		int max = 0;
+		for (int d : dist)
+			max = Math.max(max, d);
+		return max;
+	}
+
+	// the number of slots a successful lookup inspects on average, O(1)
+	public double averageProbeLength() {
+		return keyCount == 0 ? 0.0 : 1.0 + (double) totalDistance / keyCount;
+	}
+
+	public V put(K key, V value) {
+		return insert(key, value);
+	}
+
+	public V add(K key, V value) {
+		return insert(key, value);
+	}
+
+	// returns boolean on whether a given key exists within the hash table
+	public boolean containsKey(K key) {
+		return hasKey(key);
+	}
+
+	public boolean hasKey(K key) {
+		if (key == null)
+			throw new IllegalArgumentException("null key");
+		return findSlot(key) != -1;
+	}
+
+	// get the value associated with the input key.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V get(K key) {
+		if (key == null)
+			throw new IllegalArgumentException("Null key");
+		int i = findSlot(key);
+		return i == -1 ? null : values[i];
+	}
+
+	// returns the slot holding 'key' or -1 if it is not in the table. The search ends at
+	// an empty slot or at a key closer to its home than 'key' would be at this point,
+	// since the insertion of 'key' would have taken over that slot
+	private int findSlot(Object key) {
+		final int hash = hash(key);
+		for (int i = hash & mask, d = 1;; i = (i + 1) & mask, d++) {
+			if (dist[i] < d) {
+				if (stats != null)
+					stats.recordMiss(d);
+				return -1;
+			}
+			if (dist[i] == d && hashes[i] == hash && key.equals(keys[i])) {
+				if (stats != null)
+					stats.recordHit(d);
+				return i;
+			}
+		}
+	}
+
+	// place a key-value pair into the hash-table. If the value already
+	// exists inside the hash-table then the value is updated
+	public V insert(K key, V val) {
+		if (key == null)
+			throw new IllegalArgumentException("Null key");
+
+		int i = findSlot(key);
+		if (i != -1) {
+			V oldValue = values[i];
+			values[i] = val;
+			modificationCount++;
+			return oldValue;
+		}
+
+		if (keyCount >= threshold)
+			resizeTable();
+
+		place(hash(key), key, val);
+		keyCount++;
+		modificationCount++;
+		return null;
+	}
+
+	// puts a key known not to be in the table into its slot, robbing
+	// the slots of the keys that are closer to home along the way
+	private void place(int hash, K key, V val) {
+		for (int i = hash & mask, d = 1;; i = (i + 1) & mask, d++) {
+			if (dist[i] == 0) {
+				keys[i] = key;
+				values[i] = val;
+				hashes[i] = hash;
+				dist[i] = d;
+				totalDistance += d - 1;
+				return;
+			}
+
+			// the occupant is richer (closer to home), swap and carry on with it
+			if (dist[i] < d) {
+				K k = keys[i];
+				V v = values[i];
+				int h = hashes[i], od = dist[i];
+				keys[i] = key;
+				values[i] = val;
+				hashes[i] = hash;
+				dist[i] = d;
+				totalDistance += d - od;
+				key = k;
+				val = v;
+				hash = h;
+				d = od;
+			}
+		}
+	}
+
+	// removes a key from the map and returns the value.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V remove(K key) {
+		if (key == null)
+			throw new IllegalArgumentException("null key");
+
+		int i = findSlot(key);
+		if (i == -1)
+			return null;
+
+		V oldValue = values[i];
+		totalDistance -= dist[i] - 1;
+
+		// backward shift: pull back every following key which is not in its home slot
+		for (int next = (i + 1) & mask; dist[next] > 1; i = next, next = (next + 1) & mask) {
+			keys[i] = keys[next];
+			values[i] = values[next];
+			hashes[i] = hashes[next];
+			dist[i] = dist[next] - 1;
+			totalDistance--;
+		}
+		keys[i] = null;
+		values[i] = null;
+		dist[i] = 0;
+
+		keyCount--;
+		modificationCount++;
+		return oldValue;
+	}
+
+	// doubles the capacity and places every key again
+	private void resizeTable() {
+		final long start = stats == null ? 0 : System.nanoTime();
+		K[] oldKeys = keys;
+		V[] oldValues = values;
+		int[] oldDist = dist;
+		int[] oldHashes = hashes;
+
+		allocate(capacity * 2);
+		totalDistance = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldDist[i] != 0)
+				place(oldHashes[i], oldKeys[i], oldValues[i]);
+		}
+
+		if (stats != null)
+			stats.recordResize(System.nanoTime() - start);
+	}
+
+	// returns a list of keys found in the hash table
+	public List<K> keys() {
+		List<K> hashTableKeys = new ArrayList<>(size());
+		for (int i = 0; i < capacity; i++) {
+			if (dist[i] != 0)
+				hashTableKeys.add(keys[i]);
+		}
+		return hashTableKeys;
+	}
+
+	// returns a list of non-unique values in the hash table
+	public List<V> values() {
+		List<V> hashTableValues = new ArrayList<>(size());
+		for (int i = 0; i < capacity; i++) {
+			if (dist[i] != 0)
+				hashTableValues.add(values[i]);
+		}
+		return hashTableValues;
+	}
+
+	// writes a snapshot of the table to 'channel', see Snapshots for the format. The
+	// channel is left open
+	public void writeTo(WritableByteChannel channel, KeyCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec)
+			throws IOException {
+		Snapshots.Writer<K, V> writer = new Snapshots.Writer<>(channel, keyCodec, valueCodec, this, capacity, keyCount,
+				keyCount);
+		for (int i = 0; i < capacity; i++) {
+			if (dist[i] != 0)
+				writer.entry(i, hashes[i], keys[i], values[i]);
+		}
+		writer.finish();
+	}
+
+	// replaces the contents of the table with a snapshot read from 'channel'. A snapshot
+	// written by a table of this class is put back slot for slot, the probe distances
+	// following from the stored hashes, as long as its keys still hash the same. Otherwise,
+	// or for a snapshot of another kind of table, the keys are placed again
+	@SuppressWarnings("unchecked")
+	public void readFrom(ReadableByteChannel channel, KeyCodec<? extends K> keyCodec,
+			ValueCodec<? extends V> valueCodec) throws IOException {
+		Snapshots.Reader<K, V> reader = new Snapshots.Reader<>(channel, keyCodec, valueCodec);
+
+		if (!reader.writtenBy(this)) {
+			allocate(capacityFor(reader.keyCount));
+			keyCount = 0;
+			totalDistance = 0;
+			modificationCount++;
+			while (reader.next()) {
+				if (!reader.tombstone) {
+					place(hash(reader.key), reader.key, reader.value);
+					keyCount++;
+				}
+			}
+			return;
+		}
+
+		if (Integer.bitCount(reader.capacity) != 1 || reader.keyCount >= reader.capacity
+				|| reader.records != reader.keyCount)
+			throw new IOException("Corrupt snapshot header");
+
+		K[] slotKeys = (K[]) new Object[reader.capacity];
+		V[] slotValues = (V[]) new Object[reader.capacity];
+		int[] slotHashes = new int[reader.capacity];
+		boolean sameHashes = true;
+
+		while (reader.next()) {
+			if (reader.tombstone || slotKeys[reader.slot] != null)
+				throw new IOException("Corrupt snapshot record at slot " + reader.slot);
+			slotKeys[reader.slot] = reader.key;
+			slotValues[reader.slot] = reader.value;
+			slotHashes[reader.slot] = reader.hash;
+			sameHashes &= hash(reader.key) == reader.hash;
+		}
+
+		modificationCount++;
+		if (sameHashes) {
+			capacity = reader.capacity;
+			mask = capacity - 1;
+			threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+			keys = slotKeys;
+			values = slotValues;
+			hashes = slotHashes;
+			dist = new int[capacity];
+			totalDistance = 0;
+			for (int i = 0; i < capacity; i++) {
+				if (slotKeys[i] != null) {
+					dist[i] = ((i - slotHashes[i]) & mask) + 1;
+					totalDistance += dist[i] - 1;
+				}
+			}
+			keyCount = reader.keyCount;
+		} else {
+			allocate(capacityFor(reader.keyCount));
+			keyCount = reader.keyCount;
+			totalDistance = 0;
+			for (int i = 0; i < slotKeys.length; i++) {
+				if (slotKeys[i] != null)
+					place(hash(slotKeys[i]), slotKeys[i], slotValues[i]);
+			}
+		}
+	}
+
+	// the smallest capacity whose threshold lets 'keys' keys in without a resize
+	private int capacityFor(int keys) {
+		int newCapacity = tableSizeFor(Math.max(DEFAULT_CAPACITY, keys));
+		while (Math.min(newCapacity - 1, (int) (newCapacity * loadFactor)) < keys)
+			newCapacity *= 2;
+		return newCapacity;
+	}
+
+	// return a string view of this hash-table
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		for (int i = 0; i < capacity; i++) {
+			if (dist[i] != 0)
+				sb.append(keys[i] + " => " + values[i] + ",");
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	@Override
+	public Iterator<K> iterator() {
+		// before the iteration begins record the number of modifications
+		// done to he hash-table. This value should not change as we iterate
+		// otherwise a concurrent modification has occurred
+		final int MODIFICATION_COUNT = modificationCount;
+
+		return new Iterator<K>() {
+			int index, keysLeft = keyCount;
+
+			@Override
+			public boolean hasNext() {
+				// the contents of the table have been altered
+				if (MODIFICATION_COUNT != modificationCount)
+					throw new ConcurrentModificationException();
+				return keysLeft != 0;
+			}
+
+			// find the next element and return it
+			@Override
+			public K next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				while (dist[index] == 0)
+					index++;
+				keysLeft--;
+				return keys[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
@@ -1,20 +1,41 @@
 package HashTable;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-
+import java.util.NoSuchElementException;
+
+// each bucket holds an intrusive chain of entries linked through Entry.next. A chain
+// that reaches 'treeifyThreshold' entries is converted into a TreeBin (a balanced tree)
+// so the lookups stay logarithmic even when many keys end up in the same bucket.
+//
+// the hash of every key is computed once by a pluggable Hasher and stored in its Entry,
+// chain walks compare these stored hashes before calling the (possibly expensive) equals
 public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 	private static final int DEFAULT_CAPACITY = 3;
 	private static final double DEFAULT_LOAD_FACTOR = 0.75;
+	private static final int DEFAULT_TREEIFY_THRESHOLD = 8;
 
 	private double maxLoadFactor;
 	private int capacity, threshold, size = 0;
 
-	private LinkedList<Entry<K, V>>[] table;
+	// a chain of this length becomes a tree bin, and a tree bin shrinking
+	// down to 'untreeifyThreshold' entries goes back to being a chain
+	private final int treeifyThreshold, untreeifyThreshold;
+
+	private final Hasher<? super K> hasher;
+
+	// each bucket is either null, the head of a chain or a TreeBin
+	private Entry<K, V>[] table;
+
+	// null unless statistics were requested at construction. A lookup in
+	// a tree bin is recorded as taking as many probes as the tree is high
+	private final HashTableStats stats;
 
 	public HashTableSeparateChaining() {
 		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -24,19 +45,44 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 		this(capacity, DEFAULT_LOAD_FACTOR);
 	}
 
-	// designated constructor
-	@SuppressWarnings("unchecked")
 	public HashTableSeparateChaining(int capacity, double maxLoadFactor) {
+		this(capacity, maxLoadFactor, DEFAULT_TREEIFY_THRESHOLD);
+	}
+
+	public HashTableSeparateChaining(Hasher<? super K> hasher) {
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_TREEIFY_THRESHOLD, hasher);
+	}
+
+	public HashTableSeparateChaining(int capacity, double maxLoadFactor, int treeifyThreshold) {
+		this(capacity, maxLoadFactor, treeifyThreshold, Hasher.objectHashCode());
+	}
+
+	public HashTableSeparateChaining(int capacity, double maxLoadFactor, int treeifyThreshold,
+			Hasher<? super K> hasher) {
+		this(capacity, maxLoadFactor, treeifyThreshold, hasher, false);
+	}
+
+	// designated constructor, 'recordStats' turns on the statistics returned by stats()
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public HashTableSeparateChaining(int capacity, double maxLoadFactor, int treeifyThreshold,
+			Hasher<? super K> hasher, boolean recordStats) {
 		if (capacity < 0)
 			throw new IllegalArgumentException("Illgal capacity");
-		if (maxLoadFactor <= 0 || Double.isNaN(maxLoadFactor) || Double.isFinite(maxLoadFactor))
+		if (maxLoadFactor <= 0 || Double.isNaN(maxLoadFactor) || Double.isInfinite(maxLoadFactor))
 			throw new IllegalArgumentException("Illegal maxLoadFactor");
+		if (treeifyThreshold < 2)
+			throw new IllegalArgumentException("Illegal treeifyThreshold");
+		if (hasher == null)
+			throw new IllegalArgumentException("Null hasher");
 
 		this.maxLoadFactor = maxLoadFactor;
 		this.capacity = Math.max(DEFAULT_CAPACITY, capacity);
+		this.treeifyThreshold = treeifyThreshold;
+		this.untreeifyThreshold = treeifyThreshold / 2;
+		this.hasher = hasher;
 		threshold = (int) (this.capacity * maxLoadFactor);
-		table = new LinkedList[this.capacity];
-
+		table = new Entry[this.capacity];
+		stats = recordStats ? new HashTableStats() : null;
 	}
 
 	public int size() {
@@ -47,6 +93,33 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 		return size == 0;
 	}
 
+	// the statistics of this table, refreshing its occupancy figures takes O(capacity)
+	public HashTableStats stats() {
+		if (stats == null)
+			throw new IllegalStateException("statistics are not recorded by this table");
+		int maxChainLength = 0;
+		for (Entry<K, V> bucket : table) {
+			int chainLength = 0;
+			if (bucket instanceof TreeBin)
+				chainLength = ((TreeBin<K, V>) bucket).count;
+			else
+				for (Entry<K, V> entry = bucket; entry != null; entry = entry.next)
+					chainLength++;
+			maxChainLength = Math.max(maxChainLength, chainLength);
+		}
+		stats.occupancy(size, capacity, 0, maxChainLength);
+		return stats;
+	}
+
+	// records a lookup in a tree bin, whose depth is bounded by the height of its tree
+	private void recordTreeLookup(TreeBin<K, V> bin, boolean hit) {
+		int probes = bin.root == null ? 0 : bin.root.height + 1;
+		if (hit)
+			stats.recordHit(probes);
+		else
+			stats.recordMiss(probes);
+	}
+
 	// converts a hash value to an index. Essentially, this strips the
 	// negative sign and places the hash value in the domain[0, capacity]
 	private int normalizeIndex(int keyHash) {
@@ -64,8 +137,9 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 
 	// returns true/false depending on whether a key is in the hash table
 	public boolean hasKey(K key) {
-		int bucketIndex = normalizeIndex(key.hashCode());
-		return bucketSeekEntry(bucketIndex, key) != null;
+		int hash = hasher.hash(key);
+		int bucketIndex = normalizeIndex(hash);
+		return bucketSeekEntry(bucketIndex, hash, key) != null;
 	}
 
 	// insert, put and add all places a value in the hash-table
@@ -77,13 +151,12 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 		return insert(key, value);
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public V insert(K key, V value) {
 		if (key == null)
 			throw new IllegalArgumentException("Null key");
-		Entry<K, V> newEntry = new Entry(key, value);
-		int bucketIndex = normalizeIndex(newEntry.hash);
-		return bucketInsertEntry(bucketIndex, newEntry);
+		int hash = hasher.hash(key);
+		int bucketIndex = normalizeIndex(hash);
+		return bucketInsertEntry(bucketIndex, hash, key, value);
 	}
 
 	// gets s a key's values from the map and returns the value.
@@ -92,8 +165,9 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 	public V get(K key) {
 		if (key == null)
 			return null;
-		int bucketIndex = normalizeIndex(key.hashCode());
-		Entry<K, V> entry = bucketSeekEntry(bucketIndex, key);
+		int hash = hasher.hash(key);
+		int bucketIndex = normalizeIndex(hash);
+		Entry<K, V> entry = bucketSeekEntry(bucketIndex, hash, key);
 		if (entry != null)
 			return entry.value;
 		return null;
@@ -105,90 +179,178 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 	public V remove(K key) {
 		if (key == null)
 			return null;
-		int bucketIndex = normalizeIndex(key.hashCode());
-		return bucketRemoveEntry(bucketIndex, key);
+		int hash = hasher.hash(key);
+		int bucketIndex = normalizeIndex(hash);
+		return bucketRemoveEntry(bucketIndex, hash, key);
 	}
 
 	// removes an entry from a given bucket if it exists
-	private V bucketRemoveEntry(int bucketIndex, K key) {
-		Entry<K, V> entry = bucketSeekEntry(bucketIndex, key);
-		if (entry != null) {
-			LinkedList<Entry<K, V>> links = table[bucketIndex];
-			links.remove(entry);
+	private V bucketRemoveEntry(int bucketIndex, int hash, K key) {
+		Entry<K, V> head = table[bucketIndex];
+
+		if (head instanceof TreeBin) {
+			TreeBin<K, V> bin = (TreeBin<K, V>) head;
+			if (stats != null)
+				recordTreeLookup(bin, bin.find(hash, key) != null);
+			Entry<K, V> entry = bin.removeNode(hash, key);
+			if (entry == null)
+				return null;
+			if (bin.count <= untreeifyThreshold)
+				table[bucketIndex] = bin.untreeify();
 			--size;
 			return entry.value;
-		} else
-			return null;
+		}
+
+		int probes = 0;
+		for (Entry<K, V> entry = head, prev = null; entry != null; prev = entry, entry = entry.next) {
+			probes++;
+			if (entry.hash == hash && entry.key.equals(key)) {
+				if (prev == null)
+					table[bucketIndex] = entry.next;
+				else
+					prev.next = entry.next;
+				entry.next = null;
+				--size;
+				if (stats != null)
+					stats.recordHit(probes);
+				return entry.value;
+			}
+		}
+		if (stats != null)
+			stats.recordMiss(probes);
+		return null;
 	}
 
 	// inserts an entry in a given bucket only if the entry does not already
 	// exist in the given bucket, but if it does then update the entry value
-	private V bucketInsertEntry(int bucketIndex, Entry<K, V> entry) {
-		LinkedList<Entry<K, V>> bucket = table[bucketIndex];
-		if (bucket == null)
-			table[bucketIndex] = bucket = new LinkedList<>();
-
-		Entry<K, V> existentEntry = bucketSeekEntry(bucketIndex, entry.key);
-		if (existentEntry == null) {
-			bucket.add(null);
-			if (++size > threshold)
-				resizeTable();
-			return null; // using null to indicate that there was no previoys entry
+	private V bucketInsertEntry(int bucketIndex, int hash, K key, V value) {
+		Entry<K, V> head = table[bucketIndex];
+
+		if (head instanceof TreeBin) {
+			TreeBin<K, V> bin = (TreeBin<K, V>) head;
+			if (stats != null)
+				recordTreeLookup(bin, bin.find(hash, key) != null);
+			Entry<K, V> existentEntry = bin.putNode(hash, key, value);
+			if (existentEntry != null) {
+				V oldVal = existentEntry.value;
+				existentEntry.value = value;
+				return oldVal;
+			}
 		} else {
-			V oldVal = existentEntry.value;
-			existentEntry.value = entry.value;
-			return oldVal;
+			int chainLength = 0;
+			for (Entry<K, V> entry = head; entry != null; entry = entry.next, chainLength++) {
+				if (entry.hash == hash && entry.key.equals(key)) {
+					V oldVal = entry.value;
+					entry.value = value;
+					if (stats != null)
+						stats.recordHit(chainLength + 1);
+					return oldVal;
+				}
+			}
+			if (stats != null)
+				stats.recordMiss(chainLength);
+			table[bucketIndex] = new Entry<>(hash, key, value, head);
+			if (chainLength + 1 >= treeifyThreshold)
+				table[bucketIndex] = TreeBin.treeify(table[bucketIndex]);
 		}
+
+		if (++size > threshold)
+			resizeTable();
+		return null; // using null to indicate that there was no previoys entry
 	}
 
-	// finds and returns a particular entry in a given bucket
-	// if it exists, return null otherwise
-	private Entry<K, V> bucketSeekEntry(int bucketIndex, K key) {
+	// finds and returns a particular entry in a given bucket if it exists,
+	// return null otherwise. The stored hashes are compared first so that
+	// equals is only called on the entries that are likely to match
+	private Entry<K, V> bucketSeekEntry(int bucketIndex, int hash, K key) {
 		if (key == null)
 			return null;
-		LinkedList<Entry<K, V>> bucket = table[bucketIndex];
-		if (bucket == null)
-			return null;
+		Entry<K, V> entry = table[bucketIndex];
+
+		if (entry instanceof TreeBin) {
+			TreeBin<K, V> bin = (TreeBin<K, V>) entry;
+			Entry<K, V> found = bin.find(hash, key);
+			if (stats != null)
+				recordTreeLookup(bin, found != null);
+			return found;
+		}
 
-		for (Entry<K, V> entry : bucket) {
-			if (entry.key.equals(key))
+		int probes = 0;
+		for (; entry != null; entry = entry.next) {
+			probes++;
+			if (entry.hash == hash && entry.key.equals(key)) {
+				if (stats != null)
+					stats.recordHit(probes);
 				return entry;
+			}
 		}
+		if (stats != null)
+			stats.recordMiss(probes);
 		return null;
 	}
 
-	@SuppressWarnings("unchecked")
+	// returns the first entry of a bucket whether it is a chain or a tree bin
+	private static <K, V> Entry<K, V> firstEntry(Entry<K, V> bucket) {
+		return bucket instanceof TreeBin ? ((TreeBin<K, V>) bucket).first : bucket;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private void resizeTable() {
+		final long start = stats == null ? 0 : System.nanoTime();
 		capacity *= 2;
 		threshold = (int) (capacity * maxLoadFactor);
 
-		LinkedList<Entry<K, V>>[] newTable = new LinkedList[capacity];
+		Entry<K, V>[] newTable = new Entry[capacity];
+		boolean hadTreeBins = false;
 
 		for (int i = 0; i < table.length; i++) {
-			if (table[i] != null) {
-				for (Entry<K, V> entry : table[i]) {
+			Entry<K, V> entry = table[i];
+			if (entry instanceof TreeBin) {
+				hadTreeBins = true;
+
+				// tree nodes get copied into plain entries
+				for (entry = ((TreeBin<K, V>) entry).first; entry != null; entry = entry.next) {
 					int bucketIndex = normalizeIndex(entry.hash);
-					LinkedList<Entry<K, V>> bucket = newTable[bucketIndex];
-					if (bucket == null)
-						newTable[bucketIndex] = bucket = new LinkedList<>();
-					bucket.add(entry);
+					newTable[bucketIndex] = new Entry<>(entry.hash, entry.key, entry.value, newTable[bucketIndex]);
 				}
+			} else {
+				// plain entries just get relinked into their new bucket
+				while (entry != null) {
+					Entry<K, V> next = entry.next;
+					int bucketIndex = normalizeIndex(entry.hash);
+					entry.next = newTable[bucketIndex];
+					newTable[bucketIndex] = entry;
+					entry = next;
+				}
+			}
 
-				// avoid memory leak. Help the GC
-				table[i].clear();
-				table[i] = null;
+			// avoid memory leak. Help the GC
+			table[i] = null;
+		}
+
+		// keys sharing a hash stay together whatever the capacity, so
+		// the long chains have to be turned back into tree bins
+		if (hadTreeBins) {
+			for (int i = 0; i < capacity; i++) {
+				int chainLength = 0;
+				for (Entry<K, V> entry = newTable[i]; entry != null && chainLength < treeifyThreshold; entry = entry.next)
+					chainLength++;
+				if (chainLength >= treeifyThreshold)
+					newTable[i] = TreeBin.treeify(newTable[i]);
 			}
 		}
 		table = newTable;
+
+		if (stats != null)
+			stats.recordResize(System.nanoTime() - start);
 	}
 
 	// returns the list of keys found within the hash table
 	public List<K> keys() {
 		List<K> keys = new ArrayList<>(size());
-		for (LinkedList<Entry<K, V>> bucket : table)
-			if (bucket != null)
-				for (Entry<K, V> entry : bucket)
-					keys.add(entry.key);
+		for (Entry<K, V> bucket : table)
+			for (Entry<K, V> entry = firstEntry(bucket); entry != null; entry = entry.next)
+				keys.add(entry.key);
 		return keys;
 	}
 
@@ -196,13 +358,69 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 	public List<V> values() {
 		List<V> values = new ArrayList<>(size());
 
-		for (LinkedList<Entry<K, V>> bucket : table)
-			if (bucket != null)
-				for (Entry<K, V> entry : bucket)
-					values.add(entry.value);
+		for (Entry<K, V> bucket : table)
+			for (Entry<K, V> entry = firstEntry(bucket); entry != null; entry = entry.next)
+				values.add(entry.value);
 		return values;
 	}
 
+	// writes a snapshot of the table to 'channel', see Snapshots for the format. The
+	// entries are written bucket after bucket. The channel is left open
+	public void writeTo(WritableByteChannel channel, KeyCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec)
+			throws IOException {
+		Snapshots.Writer<K, V> writer = new Snapshots.Writer<>(channel, keyCodec, valueCodec, this, capacity, size,
+				size);
+		for (int i = 0; i < capacity; i++)
+			for (Entry<K, V> entry = firstEntry(table[i]); entry != null; entry = entry.next)
+				writer.entry(i, entry.hash, entry.key, entry.value);
+		writer.finish();
+	}
+
+	// replaces the contents of the table with a snapshot read from 'channel', which may come
+	// from any kind of table. The table is sized for the snapshot up front and, the keys of a
+	// snapshot being unique, every entry is linked straight into its bucket without looking
+	// for an equal key first. Only the hasher is run again on the keys, as it may differ from
+	// the one of the table that wrote the snapshot
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void readFrom(ReadableByteChannel channel, KeyCodec<? extends K> keyCodec,
+			ValueCodec<? extends V> valueCodec) throws IOException {
+		Snapshots.Reader<K, V> reader = new Snapshots.Reader<>(channel, keyCodec, valueCodec);
+
+		int newCapacity = Math.max(DEFAULT_CAPACITY, reader.capacity);
+		while ((int) (newCapacity * maxLoadFactor) < reader.keyCount && newCapacity < (1 << 30))
+			newCapacity *= 2;
+		capacity = newCapacity;
+		threshold = (int) (capacity * maxLoadFactor);
+		table = new Entry[capacity];
+		size = 0;
+
+		// the entries are put at the end of their chains to keep them in the order they were written
+		Entry<K, V>[] tails = new Entry[capacity];
+		while (reader.next()) {
+			if (reader.tombstone)
+				continue;
+			int hash = hasher.hash(reader.key);
+			int bucketIndex = normalizeIndex(hash);
+			Entry<K, V> entry = new Entry<>(hash, reader.key, reader.value, null);
+			if (tails[bucketIndex] == null)
+				table[bucketIndex] = entry;
+			else
+				tails[bucketIndex].next = entry;
+			tails[bucketIndex] = entry;
+			size++;
+		}
+		if (size != reader.keyCount)
+			throw new IOException("Corrupt snapshot, " + size + " keys instead of " + reader.keyCount);
+
+		for (int i = 0; i < capacity; i++) {
+			int chainLength = 0;
+			for (Entry<K, V> entry = table[i]; entry != null && chainLength < treeifyThreshold; entry = entry.next)
+				chainLength++;
+			if (chainLength >= treeifyThreshold)
+				table[i] = TreeBin.treeify(table[i]);
+		}
+	}
+
 	// return an iterator to iterate over all the keys in this map
 	@Override
 	public Iterator<K> iterator() {
@@ -210,7 +428,7 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 		return new Iterator<K>() {
 
 			int bucketIndex = 0;
-			Iterator<Entry<K, V>> bucketIter = (table[0] == null) ? null : table[0].iterator();
+			Entry<K, V> entry = firstEntry(table[0]);
 
 			@Override
 			public boolean hasNext() {
@@ -219,27 +437,20 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 				if (elementCount != size)
 					throw new ConcurrentModificationException();
 
-				// no iterator or the current iterator is empty
-				if (bucketIter == null || !bucketIter.hasNext()) {
-					// search next buckets until a valid iterator is founs
-					while (++bucketIndex < capacity) {
-						if (table[bucketIndex] != null) {
-
-							// make sure this iterator actually has elements
-							Iterator<Entry<K, V>> nextIter = table[bucketIndex].iterator();
-							if (nextIter.hasNext()) {
-								bucketIter = nextIter;
-								break;
-							}
-						}
-					}
-				}
-				return bucketIndex < capacity;
+				// the current chain is exhausted, search the next
+				// buckets until a non empty one is found
+				while (entry == null && ++bucketIndex < capacity)
+					entry = firstEntry(table[bucketIndex]);
+				return entry != null;
 			}
 
 			@Override
 			public K next() {
-				return bucketIter.next().key;
+				if (!hasNext())
+					throw new NoSuchElementException();
+				K key = entry.key;
+				entry = entry.next;
+				return key;
 			}
 
 			@Override
@@ -256,9 +467,7 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 		StringBuilder sb = new StringBuilder();
 		sb.append("{");
 		for (int i = 0; i < capacity; i++) {
-			if (table[i] == null)
-				continue;
-			for (Entry<K, V> entry : table[i]) {
+			for (Entry<K, V> entry = firstEntry(table[i]); entry != null; entry = entry.next) {
 				sb.append(entry + ", ");
 			}
 		}
@@ -267,30 +476,3 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 	}
 
 }
-
-class Entry<K, V> {
-
-	int hash;
-	K key;
-	V value;
-
-	public Entry(K key, V value) {
-		this.key = key;
-		this.value = value;
-		this.hash = key.hashCode();
-	}
-
-	// we are not overriding the Object equals method
-	// no casting is required with this method
-	public boolean equals(Entry<K, V> other) {
-		if (hash != other.hash)
-			return false;
-		return key.equals(other.key);
-	}
-
-	@Override
-	public String toString() {
-		return key + " => " + value;
-	}
-
-}
\ No newline at end of file
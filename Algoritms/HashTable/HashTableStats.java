@@ -0,0 +1,163 @@
+package HashTable;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+// statistics a hash table records about itself when asked to at construction, meant to
+// explain why a table is slow and to be exported to a metrics system. Tables built without
+// statistics hold no HashTableStats at all, so their only cost is a null check per operation.
+//
+// the probe length of an operation is the number of slots (open addressing) or entries
+// (separate chaining) it inspected. Hits are the operations that found their key, misses
+// the ones that did not, an insert of a new key counts as a miss. The histograms count
+// every length below HISTOGRAM_SIZE - 1 exactly, longer probes all share the last bucket.
+//
+// the occupancy figures are gauges, the table refreshes them every time its stats() are
+// requested. Like the tables, this class is not thread safe.
+public class HashTableStats {
+
+	public static final int HISTOGRAM_SIZE = 32;
+
+	private final long[] hitProbes = new long[HISTOGRAM_SIZE];
+	private final long[] missProbes = new long[HISTOGRAM_SIZE];
+	private long resizeCount, resizeNanos;
+
+	private int size, capacity, tombstones, maxChainLength;
+
+	void recordHit(int probes) {
+		hitProbes[Math.min(probes, HISTOGRAM_SIZE - 1)]++;
+	}
+
+	void recordMiss(int probes) {
+		missProbes[Math.min(probes, HISTOGRAM_SIZE - 1)]++;
+	}
+
+	void recordResize(long nanos) {
+		resizeCount++;
+		resizeNanos += nanos;
+	}
+
+	// the time spent moving keys by a resize that is spread over several operations
+	void recordResizeTime(long nanos) {
+		resizeNanos += nanos;
+	}
+
+	void occupancy(int size, int capacity, int tombstones, int maxChainLength) {
+		this.size = size;
+		this.capacity = capacity;
+		this.tombstones = tombstones;
+		this.maxChainLength = maxChainLength;
+	}
+
+	// the longest run of consecutive used slots of an open addressing table, wrapping
+	// around the end of the table like the probe sequences do
+	static int longestRun(int capacity, IntPredicate used) {
+		int start = 0;
+		while (start < capacity && used.test(start))
+			start++;
+		if (start == capacity)
+			return capacity;
+
+		// starting right after an unused slot, no run is cut in two by the wrap around
+		int longest = 0, run = 0;
+		for (int k = 1; k <= capacity; k++) {
+			if (used.test((start + k) % capacity)) {
+				longest = Math.max(longest, ++run);
+			} else {
+				run = 0;
+			}
+		}
+		return longest;
+	}
+
+	// the number of hits per probe length, index i counts the hits which took i probes
+	public long[] hitHistogram() {
+		return hitProbes.clone();
+	}
+
+	// the number of misses per probe length, index i counts the misses which took i probes
+	public long[] missHistogram() {
+		return missProbes.clone();
+	}
+
+	public long hits() {
+		return total(hitProbes);
+	}
+
+	public long misses() {
+		return total(missProbes);
+	}
+
+	// the probes longer than the histogram are counted as HISTOGRAM_SIZE - 1
+	public double averageHitProbeLength() {
+		return average(hitProbes);
+	}
+
+	public double averageMissProbeLength() {
+		return average(missProbes);
+	}
+
+	private static long total(long[] histogram) {
+		long total = 0;
+		for (long count : histogram)
+			total += count;
+		return total;
+	}
+
+	private static double average(long[] histogram) {
+		long count = 0, sum = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			count += histogram[i];
+			sum += i * histogram[i];
+		}
+		return count == 0 ? 0.0 : (double) sum / count;
+	}
+
+	public long resizeCount() {
+		return resizeCount;
+	}
+
+	// the total time spent resizing the table, in nanoseconds
+	public long resizeTimeNanos() {
+		return resizeNanos;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	// the slots holding a deletion marker, always 0 for the tables that do not use any
+	public int tombstones() {
+		return tombstones;
+	}
+
+	// the fraction of the slots holding a deletion marker
+	public double tombstoneRatio() {
+		return capacity == 0 ? 0.0 : (double) tombstones / capacity;
+	}
+
+	// the longest chain of a separate chaining table, or the longest run of consecutive
+	// used slots (keys and tombstones alike) of an open addressing table
+	public int maxChainLength() {
+		return maxChainLength;
+	}
+
+	// clears the counters, the occupancy gauges are left alone
+	public void reset() {
+		Arrays.fill(hitProbes, 0);
+		Arrays.fill(missProbes, 0);
+		resizeCount = resizeNanos = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("hits=%d (avg probes %.2f), misses=%d (avg probes %.2f), size=%d, capacity=%d, "
+				+ "tombstones=%d (%.3f), maxChainLength=%d, resizes=%d (%d ns)", hits(), averageHitProbeLength(),
+				misses(), averageMissProbeLength(), size, capacity, tombstones, tombstoneRatio(), maxChainLength,
+				resizeCount, resizeNanos);
+	}
+}
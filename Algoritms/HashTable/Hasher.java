@@ -0,0 +1,89 @@
+package HashTable;
+
+// a strategy computing the hash of a key, HashTableSeparateChaining uses it in place of
+// key.hashCode(). Equality is still decided by equals, so a hasher only has to be
+// consistent with it: keys that are equal must get the same hash.
+@FunctionalInterface
+public interface Hasher<K> {
+
+	int hash(K key);
+
+	// the key's own hashCode, this is what the tables use by default
+	static <K> Hasher<K> objectHashCode() {
+		return Object::hashCode;
+	}
+
+	// the key's hashCode run through the murmur3 finalizer. Useful for keys with weak
+	// hashCodes such as Integer, whose consecutive values otherwise fill consecutive buckets
+	static <K> Hasher<K> murmur() {
+		return key -> {
+			int h = key.hashCode();
+			h ^= h >>> 16;
+			h *= 0x85EBCA6B;
+			h ^= h >>> 13;
+			h *= 0xC2B2AE35;
+			return h ^ (h >>> 16);
+		};
+	}
+
+	// xxHash32 over the UTF-16 code units of the characters (as little endian bytes).
+	// String caches its own hashCode so this is not about raw speed: String.hashCode is
+	// trivial to attack with colliding keys, a random seed makes flooding a bucket much harder
+	static Hasher<CharSequence> xxHash32(int seed) {
+		return s -> XxHash32.hash(s, seed);
+	}
+
+	final class XxHash32 {
+		private static final int P1 = 0x9E3779B1, P2 = 0x85EBCA77, P3 = 0xC2B2AE3D, P4 = 0x27D4EB2F,
+				P5 = 0x165667B1;
+
+		private XxHash32() {
+		}
+
+		// two characters make up one 32 bit lane
+		private static int lane(CharSequence s, int i) {
+			return s.charAt(i) | (s.charAt(i + 1) << 16);
+		}
+
+		private static int round(int acc, int lane) {
+			return Integer.rotateLeft(acc + lane * P2, 13) * P1;
+		}
+
+		static int hash(CharSequence s, int seed) {
+			final int len = s.length();
+			int i = 0, h;
+
+			// stripes of 16 bytes go through four independent accumulators
+			if (len >= 8) {
+				int v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+				for (; i + 8 <= len; i += 8) {
+					v1 = round(v1, lane(s, i));
+					v2 = round(v2, lane(s, i + 2));
+					v3 = round(v3, lane(s, i + 4));
+					v4 = round(v4, lane(s, i + 6));
+				}
+				h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) + Integer.rotateLeft(v3, 12)
+						+ Integer.rotateLeft(v4, 18);
+			} else {
+				h = seed + P5;
+			}
+			h += len * 2;
+
+			for (; i + 2 <= len; i += 2)
+				h = Integer.rotateLeft(h + lane(s, i) * P3, 17) * P4;
+
+			// a single character is left, feed its two bytes
+			if (i < len) {
+				char c = s.charAt(i);
+				h = Integer.rotateLeft(h + (c & 0xFF) * P5, 11) * P1;
+				h = Integer.rotateLeft(h + (c >>> 8) * P5, 11) * P1;
+			}
+
+			h ^= h >>> 15;
+			h *= P2;
+			h ^= h >>> 13;
+			h *= P3;
+			return h ^ (h >>> 16);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package HashTable;
+
+// a primitive int keys to long values hash table using double hashing as a collision resolution
+// technique, see HashTableDoubleHashing. The second hash is derived from the key
+// itself with a different mixing function so no SecondaryHash is needed
+public class IntLongDoubleHashingMap extends IntLongOpenAddressingBase {
+
+	private int hash;
+
+	public IntLongDoubleHashingMap() {
+		super();
+	}
+
+	public IntLongDoubleHashingMap(int capacity) {
+		super(capacity);
+	}
+
+	// designated constructor
+	public IntLongDoubleHashingMap(int capacity, double loadFactor) {
+		super(capacity, loadFactor);
+	}
+
+	@Override
+	protected void setupProbing(int key) {
+		// catch second hash value
+		int h = Integer.rotateLeft(key * 0x85EBCA6B, 13) * 0xC2B2AE35;
+		hash = normalizeIndex(h ^ (h >>> 16));
+
+		// fail safe to avoid infinite loop
+		if (hash == 0)
+			hash = 1;
+	}
+
+	@Override
+	protected int probe(int x) {
+		return x * hash;
+	}
+
+	// Adjust the capacity until it is prime number so that
+	// GCD(hash, capacity) = 1 and all the cells can be reached
+	@Override
+	protected void adjustCapacity() {
+		while (!isPrime(capacity)) {
+			capacity++;
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package HashTable;
+
+// a primitive int keys to object values hash table using open addressing with linear probing
+// as a collision resolution method, see HashTableLinearProbing
+public class IntObjectLinearProbingMap<V> extends IntObjectOpenAddressingBase<V> {
+
+	// this is the linear constant used in the linear probing, it can be any
+	// positive number. The table capacity will be adjusted so that the
+	// GCD(capacity, LINEAR_CONSTANT) = 1 so that all buckets can be probed
+	private static final int LINEAR_CONSTANT = 17;
+
+	public IntObjectLinearProbingMap() {
+		super();
+	}
+
+	public IntObjectLinearProbingMap(int capacity) {
+		super(capacity);
+	}
+
+	public IntObjectLinearProbingMap(int capacity, double loadFactor) {
+		super(capacity, loadFactor);
+	}
+
+	@Override
+	protected void setupProbing(int key) {
+	}
+
+	@Override
+	protected int probe(int x) {
+		return LINEAR_CONSTANT * x;
+	}
+
+	// adjust the capacity so that the linear constant and
+	// the table capacity are relatively prime
+	@Override
+	protected void adjustCapacity() {
+		while (gcd(LINEAR_CONSTANT, capacity) != 1) {
+			capacity++;
+		}
+	}
+
+}
@@ -0,0 +1,382 @@
+package HashTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// a base class for open addressing hash tables mapping primitive int keys to object values.
+// It mirrors HashTableOpenAddresingBase but keeps the keys in an int[] array so no key
+// gets boxed on the hot path.
+//
+// Instead of null and the TOMBSTONE object two reserved key values mark empty and deleted
+// slots. The (rare) entries whose key is equal to one of these sentinels are kept aside in
+// two dedicated side slots so every int is still a valid key.
+public abstract class IntObjectOpenAddressingBase<V> {
+
+	// sentinel key values marking free and deleted slots inside the 'keys' array
+	protected static final int FREE_KEY = 0;
+	protected static final int TOMBSTONE = Integer.MIN_VALUE;
+
+	protected double loadFactor;
+	protected int capacity, threshold, modificationCount = 0;
+
+	// 'usedBuckets' counts the total number of used buckets inside the
+	// keys array (includes cells marked as deleted). while 'keyCount'
+	// tracks the number of unique keys currently inside the hash-table
+	protected int usedBuckets, keyCount;
+
+	// arrays that store the key-value pairs
+	protected int[] keys;
+	protected V[] values;
+
+	// side slots for the keys equal to FREE_KEY (index 0) and TOMBSTONE (index 1)
+	private final boolean[] sentinelUsed = new boolean[2];
+	@SuppressWarnings("unchecked")
+	private final V[] sentinelValues = (V[]) new Object[2];
+
+	private static final int DEFAULT_CAPACITY = 7;
+	private static final double DEFAULT_LOAD_FACTOR = 0.65;
+
+	protected IntObjectOpenAddressingBase() {
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+	}
+
+	protected IntObjectOpenAddressingBase(int capacity) {
+		this(capacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	// designated constructor
+	@SuppressWarnings("unchecked")
+	protected IntObjectOpenAddressingBase(int capacity, double loadFactor) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+
+		if (loadFactor <= 0 || Double.isNaN(loadFactor) || Double.isInfinite(loadFactor))
+			throw new IllegalArgumentException("illegal loadFactor: " + loadFactor);
+
+		this.loadFactor = loadFactor;
+		this.capacity = Math.max(DEFAULT_CAPACITY, capacity);
+		adjustCapacity();
+
+		threshold = (int) (this.capacity * loadFactor);
+
+		keys = new int[this.capacity];
+		values = (V[]) new Object[this.capacity];
+	}
+
+	// these three methods are used to dictate how the probing is to actually
+	// occur for whatever open addressing scheme you are implementing
+	protected abstract void setupProbing(int key);
+
+	protected abstract int probe(int x);
+
+	// adjusts the capacity of the hash table after it's been made larger.
+	protected abstract void adjustCapacity();
+
+	// increases the capacity of the hash table.
+	protected void increaseCapacity() {
+		capacity = (2 * capacity) + 1;
+	}
+
+	// spreads the bits of the key so that sequential keys do not
+	// end up clustered together in the table
+	protected static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	// converts a hash value to an index. Essentially, this strips the negative
+	// sign and places the hash value in the domain [0, capacity)
+	protected final int normalizeIndex(int keyHash) {
+		return (keyHash & 0x7FFFFFFF) % capacity;
+	}
+
+	// finds the greatest common denominator of a and b
+	protected static final int gcd(int a, int b) {
+		if (b == 0)
+			return a;
+		return gcd(b, a % b);
+	}
+
+	// returns whether n is prime, trial division up to sqrt(n)
+	protected static final boolean isPrime(int n) {
+		if (n < 2)
+			return false;
+		if (n % 2 == 0)
+			return n == 2;
+		for (int d = 3; d <= n / d; d += 2)
+			if (n % d == 0)
+				return false;
+		return true;
+	}
+
+	// returns the side slot used by a key equal to one of the sentinels or -1 otherwise
+	private static int sentinelIndex(int key) {
+		return key == FREE_KEY ? 0 : key == TOMBSTONE ? 1 : -1;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, FREE_KEY);
+		Arrays.fill(values, null);
+		sentinelUsed[0] = sentinelUsed[1] = false;
+		sentinelValues[0] = sentinelValues[1] = null;
+		keyCount = usedBuckets = 0;
+		modificationCount++;
+	}
+
+	// currently keys inside the hash-table
+	public int size() {
+		return keyCount;
+	}
+
+	// returns the capacity of the hash table
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public boolean isEmpty() {
+		return keyCount == 0;
+	}
+
+	public V put(int key, V value) {
+		return insert(key, value);
+	}
+
+	public V add(int key, V value) {
+		return insert(key, value);
+	}
+
+	// returns boolean on whether a given key exists within the hash table
+	public boolean containsKey(int key) {
+		return hasKey(key);
+	}
+
+	// returns the keys found in the hash table
+	public int[] keys() {
+		int[] hashTableKeys = new int[keyCount];
+		int n = 0;
+		for (int s = 0; s < 2; s++)
+			if (sentinelUsed[s])
+				hashTableKeys[n++] = s == 0 ? FREE_KEY : TOMBSTONE;
+		for (int i = 0; i < capacity; i++) {
+			if (keys[i] != FREE_KEY && keys[i] != TOMBSTONE)
+				hashTableKeys[n++] = keys[i];
+		}
+		return hashTableKeys;
+	}
+
+	// returns a list of non-unique values in the hash table, in the same order as keys()
+	public List<V> values() {
+		List<V> hashTableValues = new ArrayList<>(keyCount);
+		for (int s = 0; s < 2; s++)
+			if (sentinelUsed[s])
+				hashTableValues.add(sentinelValues[s]);
+		for (int i = 0; i < capacity; i++) {
+			if (keys[i] != FREE_KEY && keys[i] != TOMBSTONE)
+				hashTableValues.add(values[i]);
+		}
+		return hashTableValues;
+	}
+
+	// rebuild the hash table and re-insert every live key. The capacity only
+	// doubles when at least half of the threshold is live keys, otherwise the
+	// buckets are mostly tombstones and the table is rebuilt at its current
+	// capacity to purge them, so that insert/remove churn does not grow it.
+	// Since the new arrays contain neither tombstones nor duplicates each key
+	// simply goes into the first free slot of its probe sequence
+	@SuppressWarnings("unchecked")
+	protected void resizeTable() {
+		if (keyCount >= threshold / 2) {
+			increaseCapacity();
+			adjustCapacity();
+		}
+
+		threshold = (int) (capacity * loadFactor);
+
+		int[] oldKeyTable = keys;
+		V[] oldValueTable = values;
+		keys = new int[capacity];
+		values = (V[]) new Object[capacity];
+		usedBuckets = 0;
+
+		for (int i = 0; i < oldKeyTable.length; i++) {
+			int key = oldKeyTable[i];
+			if (key == FREE_KEY || key == TOMBSTONE)
+				continue;
+
+			setupProbing(key);
+			final int offset = normalizeIndex(hash(key));
+			int j = offset;
+			for (int x = 1; keys[j] != FREE_KEY; j = normalizeIndex(offset + probe(x++)))
+				;
+			keys[j] = key;
+			values[j] = oldValueTable[i];
+			usedBuckets++;
+		}
+	}
+
+	// place a key-value pair into the hash-table. If the value already
+	// exists inside the hash-table then the value is updated
+	public V insert(int key, V val) {
+		int s = sentinelIndex(key);
+		if (s != -1) {
+			V oldValue = sentinelValues[s];
+			if (!sentinelUsed[s]) {
+				sentinelUsed[s] = true;
+				keyCount++;
+			}
+			sentinelValues[s] = val;
+			modificationCount++;
+			return oldValue;
+		}
+
+		if (usedBuckets >= threshold)
+			resizeTable();
+
+		setupProbing(key);
+		final int offset = normalizeIndex(hash(key));
+
+		for (int i = offset, j = -1, x = 1;; i = normalizeIndex(offset + probe(x++))) {
+			final int k = keys[i];
+
+			// the current slot was previously deleted
+			if (k == TOMBSTONE) {
+				if (j == -1)
+					j = i;
+
+				// the current cell already contains a key
+			} else if (k != FREE_KEY) {
+				// the key we're trying to insert exists in the hash-table
+				// so update its value with the most recent value
+				if (k == key) {
+					V oldValue = values[i];
+					if (j == -1) {
+						values[i] = val;
+					} else {
+						keys[i] = TOMBSTONE;
+						values[i] = null;
+						keys[j] = key;
+						values[j] = val;
+					}
+					modificationCount++;
+					return oldValue;
+				}
+
+				// current cell is free so an insertion can occur
+			} else {
+				// no previously encountered deleted buckets
+				if (j == -1) {
+					usedBuckets++;
+					keys[i] = key;
+					values[i] = val;
+
+					// previously seen deleted bucket, reuse it
+				} else {
+					keys[j] = key;
+					values[j] = val;
+				}
+				keyCount++;
+				modificationCount++;
+				return null;
+			}
+		}
+	}
+
+	public boolean hasKey(int key) {
+		int s = sentinelIndex(key);
+		if (s != -1)
+			return sentinelUsed[s];
+		return findIndex(key) != -1;
+	}
+
+	// get the value associated with the input key.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V get(int key) {
+		int s = sentinelIndex(key);
+		if (s != -1)
+			return sentinelUsed[s] ? sentinelValues[s] : null;
+		int i = findIndex(key);
+		return i == -1 ? null : values[i];
+	}
+
+	// returns the slot holding 'key' or -1 if the key does not exist. If a deleted
+	// cell was seen along the way the entry is moved into it so that the next
+	// lookup of this key is faster, this is called lazy deletion/relocation
+	private int findIndex(int key) {
+		setupProbing(key);
+		final int offset = normalizeIndex(hash(key));
+
+		for (int i = offset, j = -1, x = 1;; i = normalizeIndex(offset + probe(x++))) {
+			final int k = keys[i];
+
+			if (k == TOMBSTONE) {
+				if (j == -1)
+					j = i;
+			} else if (k == key) {
+				if (j == -1)
+					return i;
+				keys[j] = key;
+				values[j] = values[i];
+				keys[i] = TOMBSTONE;
+				values[i] = null;
+				return j;
+			} else if (k == FREE_KEY)
+				return -1;
+		}
+	}
+
+	// removes a key from the map and returns the value.
+	// NOTE: returns null if the value is null and also returns
+	// null if the key does not exists.
+	public V remove(int key) {
+		int s = sentinelIndex(key);
+		if (s != -1) {
+			if (!sentinelUsed[s])
+				return null;
+			V oldValue = sentinelValues[s];
+			sentinelUsed[s] = false;
+			sentinelValues[s] = null;
+			keyCount--;
+			modificationCount++;
+			return oldValue;
+		}
+
+		setupProbing(key);
+		final int offset = normalizeIndex(hash(key));
+
+		for (int i = offset, x = 1;; i = normalizeIndex(offset + probe(x++))) {
+			final int k = keys[i];
+
+			// key was not found in hash-table
+			if (k == FREE_KEY)
+				return null;
+
+			// the key we want to remove is in the hash-table
+			if (k == key) {
+				keyCount--;
+				modificationCount++;
+				V oldValue = values[i];
+				keys[i] = TOMBSTONE;
+				values[i] = null;
+				return oldValue;
+			}
+		}
+	}
+
+	// return a string view of this hash-table
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		for (int s = 0; s < 2; s++)
+			if (sentinelUsed[s])
+				sb.append((s == 0 ? FREE_KEY : TOMBSTONE) + " => " + sentinelValues[s] + ",");
+		for (int i = 0; i < capacity; i++) {
+			if (keys[i] != FREE_KEY && keys[i] != TOMBSTONE)
+				sb.append(keys[i] + " => " + values[i] + ",");
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+}
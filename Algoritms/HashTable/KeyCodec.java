@@ -0,0 +1,69 @@
+package HashTable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// turns the keys of a hash table into bytes and back for its snapshots. A key read back must
+// be equal to the one written and, for a snapshot to be restored slot for slot, must have the
+// same hash code. A table whose keys come back with other hash codes (identity hash codes for
+// instance) still loads the snapshot, by inserting every key again.
+public interface KeyCodec<K> extends ValueCodec<K> {
+
+	KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+		@Override
+		public void write(Integer key, DataOutput out) throws IOException {
+			out.writeInt(key);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	};
+
+	KeyCodec<Long> LONG = new KeyCodec<Long>() {
+		@Override
+		public void write(Long key, DataOutput out) throws IOException {
+			out.writeLong(key);
+		}
+
+		@Override
+		public Long read(DataInput in) throws IOException {
+			return in.readLong();
+		}
+	};
+
+	KeyCodec<Double> DOUBLE = new KeyCodec<Double>() {
+		@Override
+		public void write(Double key, DataOutput out) throws IOException {
+			out.writeDouble(key);
+		}
+
+		@Override
+		public Double read(DataInput in) throws IOException {
+			return in.readDouble();
+		}
+	};
+
+	// the UTF-8 bytes prefixed by their count, unlike writeUTF there is no 64KB limit
+	KeyCodec<String> STRING = new KeyCodec<String>() {
+		@Override
+		public void write(String key, DataOutput out) throws IOException {
+			byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public String read(DataInput in) throws IOException {
+			int length = in.readInt();
+			if (length < 0)
+				throw new IOException("Corrupt string length: " + length);
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+}
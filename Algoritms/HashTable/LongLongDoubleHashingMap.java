@@ -0,0 +1,48 @@
+package HashTable;
+
+// a primitive long keys to long values hash table using double hashing as a collision resolution
+// technique, see HashTableDoubleHashing. The second hash is derived from the key
+// itself with a different mixing function so no SecondaryHash is needed
+public class LongLongDoubleHashingMap extends LongLongOpenAddressingBase {
+
+	private int hash;
+
+	public LongLongDoubleHashingMap() {
+		super();
+	}
+
+	public LongLongDoubleHashingMap(int capacity) {
+		super(capacity);
+	}
+
+	// designated constructor
+	public LongLongDoubleHashingMap(int capacity, double loadFactor) {
+		super(capacity, loadFactor);
+	}
+
+	@Override
+	protected void setupProbing(long key) {
+		// catch second hash value
+		long h = Long.rotateLeft(key * 0xC2B2AE3D27D4EB4FL, 31) * 0x165667B19E3779F9L;
+		hash = normalizeIndex((int) (h ^ (h >>> 32)));
+
+		// fail safe to avoid infinite loop
+		if (hash == 0)
+			hash = 1;
+	}
+
+	@Override
+	protected int probe(int x) {
+		return x * hash;
+	}
+
+	// Adjust the capacity until it is prime number so that
+	// GCD(hash, capacity) = 1 and all the cells can be reached
+	@Override
+	protected void adjustCapacity() {
+		while (!isPrime(capacity)) {
+			capacity++;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package HashTable;
+
+// a primitive long keys to long values hash table using open addressing with quadratic probing
+// as a collision resolution method. Like HashTableQuadraticProbing it uses the
+// probing function f(x) = (x + x^2)/2 over a power of two capacity
+public class LongLongQuadraticProbingMap extends LongLongOpenAddressingBase {
+
+	public LongLongQuadraticProbingMap() {
+		super();
+	}
+
+	public LongLongQuadraticProbingMap(int capacity) {
+		super(capacity);
+	}
+
+	// designated constructor
+	public LongLongQuadraticProbingMap(int capacity, double loadFactor) {
+		super(capacity, loadFactor);
+	}
+
+	// given a number this method finds the next
+	// power of two above this value
+	private static int nextPowerOfTwo(int n) {
+		return Integer.highestOneBit(n) << 1;
+	}
+
+	// no set up required for quadratic probing
+	@Override
+	protected void setupProbing(long key) {
+	}
+
+	@Override
+	protected int probe(int x) {
+		// quadratic probing function (x^2+x)/2
+		return (x * x + x) >> 1;
+	}
+
+	// increase the capacity of the hash table to the next power of two
+	@Override
+	protected void increaseCapacity() {
+		capacity = nextPowerOfTwo(capacity);
+	}
+
+	// adjust the capacity of the hash table to be a power of two
+	@Override
+	protected void adjustCapacity() {
+		int pow2 = Integer.highestOneBit(capacity);
+		if (capacity == pow2)
+			return;
+		increaseCapacity();
+	}
+
+}
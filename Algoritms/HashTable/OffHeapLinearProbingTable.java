@@ -0,0 +1,488 @@
+package HashTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// an open addressing hash table mapping long keys to long values which keeps its slots outside
+// of the Java heap, so the garbage collector never has to scan them. Every slot is 16 bytes (the
+// key followed by the value) inside direct ByteBuffers, or inside a memory mapped file when the
+// table is built with create(). Such a file can be mapped again with open() after a restart,
+// the slots are then paged in lazily by the OS on first use instead of being rebuilt.
+//
+// like LongLongOpenAddressingBase two key values mark the free and deleted slots, the keys
+// equal to them are kept in side slots. The capacity is a power of two and the keys are probed
+// with the sequences of HashTableLinearProbing or HashTableQuadraticProbing.
+//
+// a file only holds a consistent table after force() or close(), since the size and the side
+// slots are kept in its header which is not rewritten on every change. A single ByteBuffer is
+// int indexed, so the slots are split into chunks of at most 2^26 slots (1GB).
+public class OffHeapLinearProbingTable implements AutoCloseable {
+
+	// the probe sequences the table can use, both visit every slot of a power of two capacity
+	public enum Probing {
+		// the sequence of HashTableLinearProbing, an odd constant is coprime with the capacity
+		LINEAR {
+			@Override
+			long probe(int x) {
+				return 17L * x;
+			}
+		},
+		// the sequence of HashTableQuadraticProbing, f(x) = (x^2 + x) / 2
+		QUADRATIC {
+			@Override
+			long probe(int x) {
+				return ((long) x * x + x) >> 1;
+			}
+		};
+
+		abstract long probe(int x);
+	}
+
+	// value returned by get/put/remove when a key is not inside the table
+	public static final long NO_VALUE = 0L;
+
+	// sentinel key values marking free and deleted slots, a zero filled slot is free
+	private static final long FREE_KEY = 0L;
+	private static final long TOMBSTONE = Long.MIN_VALUE;
+
+	private static final int SLOT_BYTES = 16;
+	private static final int CHUNK_SHIFT = 26, CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	// the file starts with a header of HEADER_BYTES followed by the slots
+	private static final long MAGIC = 0x4F48485441424C45L; // "OHHTABLE"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 64;
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final double DEFAULT_LOAD_FACTOR = 0.65;
+
+	private final Probing probing;
+	private final double loadFactor;
+
+	// the backing file, or null when the slots live in direct buffers
+	private final Path file;
+	private FileChannel channel;
+	private MappedByteBuffer header;
+
+	private int capacity, mask, threshold, usedBuckets, keyCount, modificationCount = 0;
+	private ByteBuffer[] chunks;
+
+	// side slots for the keys equal to FREE_KEY (index 0) and TOMBSTONE (index 1)
+	private final boolean[] sentinelUsed = new boolean[2];
+	private final long[] sentinelValues = new long[2];
+
+	public OffHeapLinearProbingTable() {
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, Probing.LINEAR);
+	}
+
+	public OffHeapLinearProbingTable(int capacity) {
+		this(capacity, DEFAULT_LOAD_FACTOR, Probing.LINEAR);
+	}
+
+	// designated constructor of a table living in direct buffers
+	public OffHeapLinearProbingTable(int capacity, double loadFactor, Probing probing) {
+		this(null, null, capacity, loadFactor, probing);
+		allocate(this.capacity);
+	}
+
+	private OffHeapLinearProbingTable(Path file, FileChannel channel, int capacity, double loadFactor,
+			Probing probing) {
+		if (capacity <= 0 || capacity > MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		if (!(loadFactor > 0 && loadFactor < 1))
+			throw new IllegalArgumentException("illegal loadFactor: " + loadFactor);
+		if (probing == null)
+			throw new IllegalArgumentException("Null probing");
+
+		this.file = file;
+		this.channel = channel;
+		this.loadFactor = loadFactor;
+		this.probing = probing;
+		this.capacity = tableSizeFor(Math.max(DEFAULT_CAPACITY, capacity));
+	}
+
+	// creates a table inside 'file', replacing whatever the file held before
+	public static OffHeapLinearProbingTable create(Path file, int capacity, double loadFactor, Probing probing)
+			throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			OffHeapLinearProbingTable table = new OffHeapLinearProbingTable(file, channel, capacity, loadFactor,
+					probing);
+			table.header = mapHeader(channel);
+			table.allocate(table.capacity);
+			table.writeHeader();
+			return table;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	// maps again a table written by a previous create() and closed or forced since
+	public static OffHeapLinearProbingTable open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() < HEADER_BYTES)
+				throw new IOException("Not a hash table file: " + file);
+			MappedByteBuffer header = mapHeader(channel);
+			if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION)
+				throw new IOException("Not a hash table file: " + file);
+
+			int probing = header.getInt(12), capacity = header.getInt(16);
+			if (probing < 0 || probing >= Probing.values().length || Integer.bitCount(capacity) != 1
+					|| channel.size() < HEADER_BYTES + (long) capacity * SLOT_BYTES)
+				throw new IOException("Corrupt hash table file: " + file);
+
+			OffHeapLinearProbingTable table = new OffHeapLinearProbingTable(file, channel, capacity,
+					header.getDouble(24), Probing.values()[probing]);
+			table.header = header;
+			table.keyCount = header.getInt(32);
+			table.usedBuckets = header.getInt(36);
+			int flags = header.getInt(40);
+			for (int s = 0; s < 2; s++) {
+				table.sentinelUsed[s] = (flags & (1 << s)) != 0;
+				table.sentinelValues[s] = header.getLong(48 + 8 * s);
+			}
+			table.allocate(capacity);
+			return table;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static MappedByteBuffer mapHeader(FileChannel channel) throws IOException {
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		return header;
+	}
+
+	// returns the smallest power of two >= n
+	private static int tableSizeFor(int n) {
+		return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+	}
+
+	// sets up the slots for 'capacity', mapping them from the channel when there is one.
+	// The slots of a freshly mapped region of a file are zero filled, so they are free
+	private void allocate(int capacity) {
+		this.capacity = capacity;
+		mask = capacity - 1;
+		threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+
+		chunks = new ByteBuffer[(capacity + CHUNK_SLOTS - 1) >>> CHUNK_SHIFT];
+		for (int c = 0; c < chunks.length; c++) {
+			int bytes = Math.min(CHUNK_SLOTS, capacity - c * CHUNK_SLOTS) * SLOT_BYTES;
+			try {
+				chunks[c] = channel == null ? ByteBuffer.allocateDirect(bytes)
+						: channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + (long) c * CHUNK_SLOTS * SLOT_BYTES,
+								bytes);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	private long keyAt(int slot) {
+		return chunks[slot >>> CHUNK_SHIFT].getLong((slot & (CHUNK_SLOTS - 1)) * SLOT_BYTES);
+	}
+
+	private long valueAt(int slot) {
+		return chunks[slot >>> CHUNK_SHIFT].getLong((slot & (CHUNK_SLOTS - 1)) * SLOT_BYTES + 8);
+	}
+
+	private void setKey(int slot, long key) {
+		chunks[slot >>> CHUNK_SHIFT].putLong((slot & (CHUNK_SLOTS - 1)) * SLOT_BYTES, key);
+	}
+
+	private void setValue(int slot, long value) {
+		chunks[slot >>> CHUNK_SHIFT].putLong((slot & (CHUNK_SLOTS - 1)) * SLOT_BYTES + 8, value);
+	}
+
+	// the x-th slot of the probe sequence starting at 'home'
+	private int slot(int home, int x) {
+		return (int) ((home + probing.probe(x)) & mask);
+	}
+
+	// returns the side slot used by a key equal to one of the sentinels or -1 otherwise
+	private static int sentinelIndex(long key) {
+		return key == FREE_KEY ? 0 : key == TOMBSTONE ? 1 : -1;
+	}
+
+	public void clear() {
+		for (ByteBuffer chunk : chunks)
+			for (int i = 0; i < chunk.capacity(); i += 8)
+				chunk.putLong(i, 0L);
+		sentinelUsed[0] = sentinelUsed[1] = false;
+		sentinelValues[0] = sentinelValues[1] = 0L;
+		keyCount = usedBuckets = 0;
+		modificationCount++;
+	}
+
+	// currently keys inside the hash-table
+	public int size() {
+		return keyCount;
+	}
+
+	// returns the capacity of the hash table
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public boolean isEmpty() {
+		return keyCount == 0;
+	}
+
+	public long put(long key, long value) {
+		return insert(key, value);
+	}
+
+	public long add(long key, long value) {
+		return insert(key, value);
+	}
+
+	// returns boolean on whether a given key exists within the hash table
+	public boolean containsKey(long key) {
+		return hasKey(key);
+	}
+
+	public boolean hasKey(long key) {
+		int s = sentinelIndex(key);
+		if (s != -1)
+			return sentinelUsed[s];
+		return findSlot(key) != -1;
+	}
+
+	// get the value associated with the input key.
+	// NOTE: returns NO_VALUE if the key does not exists
+	public long get(long key) {
+		int s = sentinelIndex(key);
+		if (s != -1)
+			return sentinelUsed[s] ? sentinelValues[s] : NO_VALUE;
+		int i = findSlot(key);
+		return i == -1 ? NO_VALUE : valueAt(i);
+	}
+
+	// returns the slot holding 'key' or -1 if the key does not exist
+	private int findSlot(long key) {
+		final int home = LongLongOpenAddressingBase.hash(key) & mask;
+		for (int i = home, x = 1;; i = slot(home, x++)) {
+			final long k = keyAt(i);
+			if (k == key)
+				return i;
+			if (k == FREE_KEY)
+				return -1;
+		}
+	}
+
+	// place a key-value pair into the hash-table. If the value already
+	// exists inside the hash-table then the value is updated
+	public long insert(long key, long val) {
+		int s = sentinelIndex(key);
+		if (s != -1) {
+			long oldValue = sentinelValues[s];
+			if (!sentinelUsed[s]) {
+				sentinelUsed[s] = true;
+				keyCount++;
+			}
+			sentinelValues[s] = val;
+			modificationCount++;
+			return oldValue;
+		}
+
+		if (usedBuckets >= threshold)
+			resizeTable();
+
+		final int home = LongLongOpenAddressingBase.hash(key) & mask;
+		for (int i = home, j = -1, x = 1;; i = slot(home, x++)) {
+			final long k = keyAt(i);
+
+			// the current slot was previously deleted
+			if (k == TOMBSTONE) {
+				if (j == -1)
+					j = i;
+
+				// the key we're trying to insert exists in the hash-table
+			} else if (k == key) {
+				long oldValue = valueAt(i);
+				setValue(i, val);
+				modificationCount++;
+				return oldValue;
+
+				// current cell is free so an insertion can occur, reusing
+				// the first deleted slot seen along the way if there was one
+			} else if (k == FREE_KEY) {
+				if (j == -1) {
+					usedBuckets++;
+					j = i;
+				}
+				setKey(j, key);
+				setValue(j, val);
+				keyCount++;
+				modificationCount++;
+				return NO_VALUE;
+			}
+		}
+	}
+
+	// removes a key from the map and returns the value.
+	// NOTE: returns NO_VALUE if the key does not exists
+	public long remove(long key) {
+		int s = sentinelIndex(key);
+		if (s != -1) {
+			if (!sentinelUsed[s])
+				return NO_VALUE;
+			long oldValue = sentinelValues[s];
+			sentinelUsed[s] = false;
+			sentinelValues[s] = 0L;
+			keyCount--;
+			modificationCount++;
+			return oldValue;
+		}
+
+		int i = findSlot(key);
+		if (i == -1)
+			return NO_VALUE;
+
+		long oldValue = valueAt(i);
+		setKey(i, TOMBSTONE);
+		setValue(i, 0L);
+		keyCount--;
+		modificationCount++;
+		return oldValue;
+	}
+
+	// doubles the capacity, or just rebuilds the table to clear it of tombstones
+	// when they make up most of the used buckets. A file backed table is rebuilt
+	// in a new file which then replaces the old one
+	private void resizeTable() {
+		final ByteBuffer[] oldChunks = chunks;
+		final int oldCapacity = capacity;
+		final FileChannel oldChannel = channel;
+		final Path resized = file == null ? null : file.resolveSibling(file.getFileName() + ".resize");
+
+		try {
+			if (file != null) {
+				channel = FileChannel.open(resized, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+						StandardOpenOption.READ, StandardOpenOption.WRITE);
+				header = mapHeader(channel);
+			}
+
+			int newCapacity = keyCount >= threshold / 2 ? Math.min(MAXIMUM_CAPACITY, oldCapacity * 2) : oldCapacity;
+			if (newCapacity == oldCapacity && keyCount >= threshold / 2)
+				throw new IllegalStateException("hash table is full");
+			allocate(newCapacity);
+			usedBuckets = 0;
+
+			// the new slots contain neither tombstones nor duplicates, so every
+			// key simply goes into the first free slot of its probe sequence
+			for (int slot = 0; slot < oldCapacity; slot++) {
+				ByteBuffer chunk = oldChunks[slot >>> CHUNK_SHIFT];
+				int offset = (slot & (CHUNK_SLOTS - 1)) * SLOT_BYTES;
+				long key = chunk.getLong(offset);
+				if (key == FREE_KEY || key == TOMBSTONE)
+					continue;
+
+				final int home = LongLongOpenAddressingBase.hash(key) & mask;
+				int i = home;
+				for (int x = 1; keyAt(i) != FREE_KEY; i = slot(home, x++))
+					;
+				setKey(i, key);
+				setValue(i, chunk.getLong(offset + 8));
+				usedBuckets++;
+			}
+
+			if (file != null) {
+				force();
+				Files.move(resized, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				oldChannel.close();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeHeader() {
+		int flags = (sentinelUsed[0] ? 1 : 0) | (sentinelUsed[1] ? 2 : 0);
+		header.putLong(0, MAGIC).putInt(8, VERSION).putInt(12, probing.ordinal()).putInt(16, capacity);
+		header.putDouble(24, loadFactor).putInt(32, keyCount).putInt(36, usedBuckets).putInt(40, flags);
+		header.putLong(48, sentinelValues[0]).putLong(56, sentinelValues[1]);
+	}
+
+	// writes the header and flushes every slot of a file backed table to the disk
+	public void force() {
+		if (file == null)
+			return;
+		writeHeader();
+		header.force();
+		for (ByteBuffer chunk : chunks)
+			((MappedByteBuffer) chunk).force();
+	}
+
+	// forces a file backed table to the disk and closes its file, the table
+	// must not be used afterwards. The mappings go away once garbage collected
+	@Override
+	public void close() throws IOException {
+		if (file == null)
+			return;
+		force();
+		channel.close();
+	}
+
+	// returns the keys found in the hash table
+	public long[] keys() {
+		long[] hashTableKeys = new long[keyCount];
+		int n = 0;
+		for (int s = 0; s < 2; s++)
+			if (sentinelUsed[s])
+				hashTableKeys[n++] = s == 0 ? FREE_KEY : TOMBSTONE;
+		for (int i = 0; i < capacity; i++) {
+			long k = keyAt(i);
+			if (k != FREE_KEY && k != TOMBSTONE)
+				hashTableKeys[n++] = k;
+		}
+		return hashTableKeys;
+	}
+
+	// returns the non-unique values in the hash table, in the same order as keys()
+	public long[] values() {
+		long[] hashTableValues = new long[keyCount];
+		int n = 0;
+		for (int s = 0; s < 2; s++)
+			if (sentinelUsed[s])
+				hashTableValues[n++] = sentinelValues[s];
+		for (int i = 0; i < capacity; i++) {
+			long k = keyAt(i);
+			if (k != FREE_KEY && k != TOMBSTONE)
+				hashTableValues[n++] = valueAt(i);
+		}
+		return hashTableValues;
+	}
+
+	// return a string view of this hash-table
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		for (int s = 0; s < 2; s++)
+			if (sentinelUsed[s])
+				sb.append((s == 0 ? FREE_KEY : TOMBSTONE) + " => " + sentinelValues[s] + ",");
+		for (int i = 0; i < capacity; i++) {
+			long k = keyAt(i);
+			if (k != FREE_KEY && k != TOMBSTONE)
+				sb.append(k + " => " + valueAt(i) + ",");
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,7 @@
+package HashTable;
+
+// keys stored in a HashTableDoubleHashing must provide a second hash
+// value which dictates the step size of the probing sequence
+public interface SecondaryHash {
+	public int hasCode2();
+}
@@ -0,0 +1,418 @@
+package HashTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ConcurrentModificationException;
+
+// the binary snapshot format shared by the writeTo and readFrom methods of the hash tables.
+//
+// a snapshot starts with a header: MAGIC, VERSION, the class name of the table that wrote it,
+// its capacity, its number of keys and its number of records. A record is written for every
+// used slot in increasing slot order (or for every entry of separate chaining, bucket after
+// bucket): the slot, a kind byte and, unless the slot is a deleted one, the hash the table
+// stores for the key, the key and the value.
+//
+// a table reading a snapshot of its own class puts the records back into the slots they came
+// from. Any other snapshot is loaded by inserting its keys, so the tables can read each other's.
+final class Snapshots {
+
+	private static final int MAGIC = 0x48545342; // "HTSB"
+	private static final int VERSION = 1;
+
+	// the kinds of records
+	private static final int TOMBSTONE = 0, ENTRY = 1, NULL_VALUE_ENTRY = 2;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private Snapshots() {
+	}
+
+	// writes the records of a snapshot, the channel is flushed but left open by finish()
+	static final class Writer<K, V> {
+
+		private final ChannelOutput out;
+		private final KeyCodec<? super K> keyCodec;
+		private final ValueCodec<? super V> valueCodec;
+		private final int records;
+		private int written = 0;
+
+		Writer(WritableByteChannel channel, KeyCodec<? super K> keyCodec, ValueCodec<? super V> valueCodec,
+				Object table, int capacity, int keyCount, int records) throws IOException {
+			if (channel == null || keyCodec == null || valueCodec == null)
+				throw new IllegalArgumentException("Null channel or codec");
+
+			this.out = new ChannelOutput(channel);
+			this.keyCodec = keyCodec;
+			this.valueCodec = valueCodec;
+			this.records = records;
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(table.getClass().getName());
+			out.writeInt(capacity);
+			out.writeInt(keyCount);
+			out.writeInt(records);
+		}
+
+		void tombstone(int slot) throws IOException {
+			written++;
+			out.writeInt(slot);
+			out.writeByte(TOMBSTONE);
+		}
+
+		void entry(int slot, int hash, K key, V value) throws IOException {
+			written++;
+			out.writeInt(slot);
+			out.writeByte(value == null ? NULL_VALUE_ENTRY : ENTRY);
+			out.writeInt(hash);
+			keyCodec.write(key, out);
+			if (value != null)
+				valueCodec.write(value, out);
+		}
+
+		void finish() throws IOException {
+			if (written != records)
+				throw new ConcurrentModificationException();
+			out.flush();
+		}
+	}
+
+	// reads the records of a snapshot one at a time into its fields. The input is buffered,
+	// so bytes following the snapshot in the channel may be consumed as well
+	static final class Reader<K, V> {
+
+		private final ChannelInput in;
+		private final KeyCodec<? extends K> keyCodec;
+		private final ValueCodec<? extends V> valueCodec;
+
+		// the header
+		final String table;
+		final int capacity, keyCount, records;
+
+		// the current record, 'key' and 'value' are null for a tombstone
+		int slot = -1, hash;
+		boolean tombstone;
+		K key;
+		V value;
+
+		private int read = 0;
+
+		Reader(ReadableByteChannel channel, KeyCodec<? extends K> keyCodec, ValueCodec<? extends V> valueCodec)
+				throws IOException {
+			if (channel == null || keyCodec == null || valueCodec == null)
+				throw new IllegalArgumentException("Null channel or codec");
+
+			this.in = new ChannelInput(channel);
+			this.keyCodec = keyCodec;
+			this.valueCodec = valueCodec;
+
+			if (in.readInt() != MAGIC)
+				throw new IOException("Not a hash table snapshot");
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported snapshot version: " + version);
+
+			table = in.readUTF();
+			capacity = in.readInt();
+			keyCount = in.readInt();
+			records = in.readInt();
+			if (capacity <= 0 || keyCount < 0 || records < keyCount)
+				throw new IOException("Corrupt snapshot header");
+		}
+
+		// whether the snapshot was written by a table of the same class as 'table'
+		boolean writtenBy(Object table) {
+			return this.table.equals(table.getClass().getName());
+		}
+
+		// moves on to the next record, returns false once they have all been read
+		boolean next() throws IOException {
+			if (read == records)
+				return false;
+			read++;
+
+			int previous = slot;
+			slot = in.readInt();
+			if (slot < previous || slot >= capacity)
+				throw new IOException("Corrupt snapshot record at slot " + slot);
+
+			int kind = in.readUnsignedByte();
+			tombstone = kind == TOMBSTONE;
+			if (tombstone) {
+				key = null;
+				value = null;
+				return true;
+			}
+			if (kind != ENTRY && kind != NULL_VALUE_ENTRY)
+				throw new IOException("Corrupt snapshot record at slot " + slot);
+
+			hash = in.readInt();
+			key = keyCodec.read(in);
+			if (key == null)
+				throw new IOException("Null key in snapshot");
+			value = kind == ENTRY ? valueCodec.read(in) : null;
+			return true;
+		}
+	}
+
+	// a DataOutput writing to a channel through a heap buffer. DataOutputStream goes through
+	// the stream one byte at a time for every int, which is most of the cost of a snapshot
+	private static final class ChannelOutput implements DataOutput {
+
+		private final WritableByteChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		ChannelOutput(WritableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		// makes room for 'bytes' more bytes, at most BUFFER_SIZE
+		private ByteBuffer room(int bytes) throws IOException {
+			if (buffer.remaining() < bytes)
+				flush();
+			return buffer;
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			room(1).put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b) throws IOException {
+			write(b, 0, b.length);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				int n = Math.min(len, room(1).remaining());
+				buffer.put(b, off, n);
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void writeBoolean(boolean v) throws IOException {
+			room(1).put((byte) (v ? 1 : 0));
+		}
+
+		@Override
+		public void writeByte(int v) throws IOException {
+			room(1).put((byte) v);
+		}
+
+		@Override
+		public void writeShort(int v) throws IOException {
+			room(2).putShort((short) v);
+		}
+
+		@Override
+		public void writeChar(int v) throws IOException {
+			room(2).putChar((char) v);
+		}
+
+		@Override
+		public void writeInt(int v) throws IOException {
+			room(4).putInt(v);
+		}
+
+		@Override
+		public void writeLong(long v) throws IOException {
+			room(8).putLong(v);
+		}
+
+		@Override
+		public void writeFloat(float v) throws IOException {
+			room(4).putFloat(v);
+		}
+
+		@Override
+		public void writeDouble(double v) throws IOException {
+			room(8).putDouble(v);
+		}
+
+		@Override
+		public void writeBytes(String s) throws IOException {
+			for (int i = 0; i < s.length(); i++)
+				writeByte(s.charAt(i));
+		}
+
+		@Override
+		public void writeChars(String s) throws IOException {
+			for (int i = 0; i < s.length(); i++)
+				writeChar(s.charAt(i));
+		}
+
+		// the modified UTF-8 of DataOutputStream, produced through a small stream of its own
+		@Override
+		public void writeUTF(String s) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(s.length() + 2);
+			new DataOutputStream(bytes).writeUTF(s);
+			write(bytes.toByteArray());
+		}
+	}
+
+	// a DataInput reading from a channel through a heap buffer
+	private static final class ChannelInput implements DataInput {
+
+		private final ReadableByteChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+		ChannelInput(ReadableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		// makes sure 'bytes' bytes, at most BUFFER_SIZE, can be read from the buffer
+		private ByteBuffer need(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				buffer.compact();
+				while (buffer.position() < bytes) {
+					if (channel.read(buffer) < 0) {
+						buffer.flip();
+						throw new EOFException("Truncated snapshot");
+					}
+				}
+				buffer.flip();
+			}
+			return buffer;
+		}
+
+		@Override
+		public void readFully(byte[] b) throws IOException {
+			readFully(b, 0, b.length);
+		}
+
+		@Override
+		public void readFully(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				int n = Math.min(len, need(1).remaining());
+				buffer.get(b, off, n);
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public int skipBytes(int n) throws IOException {
+			for (int left = n; left > 0;) {
+				int skipped = Math.min(left, need(1).remaining());
+				buffer.position(buffer.position() + skipped);
+				left -= skipped;
+			}
+			return n;
+		}
+
+		@Override
+		public boolean readBoolean() throws IOException {
+			return need(1).get() != 0;
+		}
+
+		@Override
+		public byte readByte() throws IOException {
+			return need(1).get();
+		}
+
+		@Override
+		public int readUnsignedByte() throws IOException {
+			return need(1).get() & 0xFF;
+		}
+
+		@Override
+		public short readShort() throws IOException {
+			return need(2).getShort();
+		}
+
+		@Override
+		public int readUnsignedShort() throws IOException {
+			return need(2).getShort() & 0xFFFF;
+		}
+
+		@Override
+		public char readChar() throws IOException {
+			return need(2).getChar();
+		}
+
+		@Override
+		public int readInt() throws IOException {
+			return need(4).getInt();
+		}
+
+		@Override
+		public long readLong() throws IOException {
+			return need(8).getLong();
+		}
+
+		@Override
+		public float readFloat() throws IOException {
+			return need(4).getFloat();
+		}
+
+		@Override
+		public double readDouble() throws IOException {
+			return need(8).getDouble();
+		}
+
+		// whether at least one more byte can be read, false at the end of the channel
+		private boolean hasMore() throws IOException {
+			if (buffer.hasRemaining())
+				return true;
+			buffer.clear();
+			int read;
+			do {
+				read = channel.read(buffer);
+			} while (read == 0);
+			buffer.flip();
+			return read > 0;
+		}
+
+		// reads bytes up to a "\n", "\r" or "\r\n" the way DataInputStream.readLine does,
+		// every byte becoming one char. Returns null at the end of the channel if no byte
+		// was read
+		@Override
+		public String readLine() throws IOException {
+			if (!hasMore())
+				return null;
+
+			StringBuilder line = new StringBuilder();
+			while (hasMore()) {
+				int c = buffer.get() & 0xFF;
+				if (c == '\n')
+					break;
+				if (c == '\r') {
+					if (hasMore() && buffer.get(buffer.position()) == '\n')
+						buffer.get();
+					break;
+				}
+				line.append((char) c);
+			}
+			return line.toString();
+		}
+
+		@Override
+		public String readUTF() throws IOException {
+			try {
+				return DataInputStream.readUTF(this);
+			} catch (UTFDataFormatException e) {
+				throw new IOException("Corrupt snapshot string", e);
+			}
+		}
+	}
+}
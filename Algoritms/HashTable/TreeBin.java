@@ -0,0 +1,249 @@
+package HashTable;
+
+// a bucket of HashTableSeparateChaining whose chain grew too long and got converted
+// into an AVL tree, using the same rotations as AVLTreeRecursive. This bounds the cost
+// of a lookup when many keys collide, for instance under hash-flooding traffic.
+//
+// Nodes are ordered by hash, then by class name and then by compareTo when both keys are of
+// the same Comparable class. Keys that still tie (same class but not comparable, or classes
+// of the same name from different class loaders) are ordered by identity hash code when
+// inserted, which a lookup cannot reproduce, so it searches both subtrees of such a node.
+// The nodes are also kept in a doubly linked list through 'next'/'prev' so the bin can be
+// walked like a plain chain.
+class TreeBin<K, V> extends Entry<K, V> {
+
+	static class TreeNode<K, V> extends Entry<K, V> {
+		TreeNode<K, V> left, right, prev;
+		int height;
+
+		TreeNode(int hash, K key, V value) {
+			super(hash, key, value, null);
+		}
+	}
+
+	TreeNode<K, V> root; // the root of the AVL tree
+	TreeNode<K, V> first; // head of the linked list of all the nodes
+	int count; // the number of nodes inside this bin
+
+	private TreeBin() {
+		super(0, null, null, null);
+	}
+
+	// builds a tree bin out of all the entries of a chain
+	static <K, V> TreeBin<K, V> treeify(Entry<K, V> chain) {
+		TreeBin<K, V> bin = new TreeBin<>();
+		for (Entry<K, V> entry = chain; entry != null; entry = entry.next)
+			bin.insertNode(new TreeNode<>(entry.hash, entry.key, entry.value));
+		return bin;
+	}
+
+	// turns the bin back into a plain chain once it became small enough
+	Entry<K, V> untreeify() {
+		Entry<K, V> chain = null;
+		for (Entry<K, V> node = first; node != null; node = node.next)
+			chain = new Entry<>(node.hash, node.key, node.value, chain);
+		return chain;
+	}
+
+	// orders two keys by hash, then by class name and then by compareTo if possible. 0 means
+	// the keys cannot be told apart and either subtree may hold the other one. Comparing
+	// class names before compareTo keeps the order transitive when keys of different classes
+	// share a hash: otherwise a key of a third class could sit between two keys of one class
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compare(int hash1, Object key1, int hash2, Object key2) {
+		if (hash1 != hash2)
+			return hash1 < hash2 ? -1 : 1;
+		Class<?> class1 = key1.getClass(), class2 = key2.getClass();
+		if (class1 != class2)
+			return class1.getName().compareTo(class2.getName());
+		if (key1 instanceof Comparable)
+			return ((Comparable) key1).compareTo(key2);
+		return 0;
+	}
+
+	// the order of insertion: compare, with keys that cannot be told apart ordered by
+	// identity hash code like HashMap.tieBreakOrder does, so that every key has a place
+	private static int insertionOrder(int hash1, Object key1, int hash2, Object key2) {
+		int cmp = compare(hash1, key1, hash2, key2);
+		if (cmp != 0)
+			return cmp;
+		return System.identityHashCode(key1) <= System.identityHashCode(key2) ? -1 : 1;
+	}
+
+	// finds the node holding 'key' or returns null if there is none
+	TreeNode<K, V> find(int hash, K key) {
+		return find(root, hash, key);
+	}
+
+	private TreeNode<K, V> find(TreeNode<K, V> node, int hash, K key) {
+		while (node != null) {
+			if (node.hash == hash && node.key.equals(key))
+				return node;
+
+			int cmp = compare(hash, key, node.hash, node.key);
+			if (cmp < 0) {
+				node = node.left;
+			} else if (cmp > 0) {
+				node = node.right;
+			} else {
+				// cannot tell which side the key is on, so look at both
+				TreeNode<K, V> found = find(node.right, hash, key);
+				if (found != null)
+					return found;
+				node = node.left;
+			}
+		}
+		return null;
+	}
+
+	// returns the node already holding 'key' if there is one, otherwise
+	// inserts a new node for the key-value pair and returns null
+	TreeNode<K, V> putNode(int hash, K key, V value) {
+		TreeNode<K, V> existent = find(hash, key);
+		if (existent != null)
+			return existent;
+		insertNode(new TreeNode<>(hash, key, value));
+		return null;
+	}
+
+	private void insertNode(TreeNode<K, V> node) {
+		root = insert(root, node);
+
+		node.next = first;
+		if (first != null)
+			first.prev = node;
+		first = node;
+		count++;
+	}
+
+	private TreeNode<K, V> insert(TreeNode<K, V> node, TreeNode<K, V> newNode) {
+		if (node == null)
+			return newNode;
+
+		if (insertionOrder(newNode.hash, newNode.key, node.hash, node.key) < 0)
+			node.left = insert(node.left, newNode);
+		else
+			node.right = insert(node.right, newNode);
+
+		update(node);
+		return balance(node);
+	}
+
+	// removes the node holding 'key' and returns it, or null if there is none
+	TreeNode<K, V> removeNode(int hash, K key) {
+		TreeNode<K, V> target = find(hash, key);
+		if (target == null)
+			return null;
+
+		root = remove(root, target);
+
+		TreeNode<K, V> next = (TreeNode<K, V>) target.next;
+		if (target.prev == null)
+			first = next;
+		else
+			target.prev.next = next;
+		if (next != null)
+			next.prev = target.prev;
+		count--;
+		return target;
+	}
+
+	private TreeNode<K, V> remove(TreeNode<K, V> node, TreeNode<K, V> target) {
+		if (node == null)
+			return null;
+
+		if (node == target) {
+			if (node.left == null)
+				return node.right;
+			if (node.right == null)
+				return node.left;
+
+			// replace the node by its successor, the leftmost node of the right subtree
+			TreeNode<K, V> successor = node.right;
+			while (successor.left != null)
+				successor = successor.left;
+			successor.right = removeMin(node.right);
+			successor.left = node.left;
+			node = successor;
+		} else {
+			int cmp = compare(target.hash, target.key, node.hash, node.key);
+			if (cmp < 0 || (cmp == 0 && contains(node.left, target)))
+				node.left = remove(node.left, target);
+			else
+				node.right = remove(node.right, target);
+		}
+
+		update(node);
+		return balance(node);
+	}
+
+	// detaches the leftmost node of a subtree
+	private TreeNode<K, V> removeMin(TreeNode<K, V> node) {
+		if (node.left == null)
+			return node.right;
+		node.left = removeMin(node.left);
+		update(node);
+		return balance(node);
+	}
+
+	// whether 'target' is part of the subtree rooted at 'node'
+	private boolean contains(TreeNode<K, V> node, TreeNode<K, V> target) {
+		while (node != null) {
+			if (node == target)
+				return true;
+			int cmp = compare(target.hash, target.key, node.hash, node.key);
+			if (cmp < 0) {
+				node = node.left;
+			} else if (cmp > 0) {
+				node = node.right;
+			} else {
+				if (contains(node.right, target))
+					return true;
+				node = node.left;
+			}
+		}
+		return false;
+	}
+
+	private static int height(TreeNode<?, ?> node) {
+		return node == null ? -1 : node.height;
+	}
+
+	// update a node's height
+	private void update(TreeNode<K, V> node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+	}
+
+	// re-balance a node if its balance factor is +2 or -2
+	private TreeNode<K, V> balance(TreeNode<K, V> node) {
+		int bf = height(node.right) - height(node.left);
+		if (bf == -2) { // left heavy subtree
+			if (height(node.left.right) > height(node.left.left))
+				node.left = leftRotation(node.left); // left-right case
+			return rightRotation(node);
+		} else if (bf == +2) { // right heavy subtree
+			if (height(node.right.left) > height(node.right.right))
+				node.right = rightRotation(node.right); // right-left case
+			return leftRotation(node);
+		}
+		return node;
+	}
+
+	private TreeNode<K, V> leftRotation(TreeNode<K, V> node) {
+		TreeNode<K, V> newParent = node.right;
+		node.right = newParent.left;
+		newParent.left = node;
+		update(node);
+		update(newParent);
+		return newParent;
+	}
+
+	private TreeNode<K, V> rightRotation(TreeNode<K, V> node) {
+		TreeNode<K, V> newParent = node.left;
+		node.left = newParent.right;
+		newParent.right = node;
+		update(node);
+		update(newParent);
+		return newParent;
+	}
+}
@@ -0,0 +1,15 @@
+package HashTable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// turns the values of a hash table into bytes and back for the snapshots written by writeTo
+// and read by readFrom. A null value never reaches a codec, the snapshot marks it on its own.
+// The constants of KeyCodec can be used for values as well.
+public interface ValueCodec<V> {
+
+	void write(V value, DataOutput out) throws IOException;
+
+	V read(DataInput in) throws IOException;
+}
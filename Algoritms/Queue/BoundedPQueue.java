@@ -0,0 +1,161 @@
+package Queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// keeps the k largest elements of a stream, the top-k selection PQueue is otherwise built
+// up with all the elements for.
+//
+// the k elements are held in a min heap of fixed size k, so its root is the smallest of the
+// elements kept: the threshold an element has to beat to get in. Once the heap is full an
+// element no larger than the root is rejected with a single comparison, and a larger one
+// replaces the root and sinks in O(log(k)). Memory stays O(k) whatever the stream length.
+public class BoundedPQueue<t extends Comparable<t>> {
+
+	private final int capacity;
+	private int heapSize = 0;
+	private final Object[] heap;
+
+	public BoundedPQueue(int k) {
+		if (k <= 0)
+			throw new IllegalArgumentException("k must be at least 1: " + k);
+		this.capacity = k;
+		heap = new Object[k];
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public boolean isFull() {
+		return heapSize == capacity;
+	}
+
+	// the maximum number of elements kept
+	public int capacity() {
+		return capacity;
+	}
+
+	public void clear() {
+		Arrays.fill(heap, 0, heapSize, null);
+		heapSize = 0;
+	}
+
+	// returns the smallest element kept, the one the next element has to be larger than
+	// once the queue is full, or null if the queue is empty
+	public t peek() {
+		if (isEmpty())
+			return null;
+		return elementAt(0);
+	}
+
+	// removes the smallest element kept
+	public t poll() {
+		if (isEmpty())
+			return null;
+		t min = elementAt(0);
+		t last = elementAt(--heapSize);
+		heap[heapSize] = null;
+		if (heapSize > 0) {
+			heap[0] = last;
+			sink(0);
+		}
+		return min;
+	}
+
+	// offers 'elem' to the queue, returns whether it was kept. When the queue is full the
+	// smallest element is dropped to make room for it
+	public boolean offer(t elem) {
+		if (elem == null)
+			throw new IllegalArgumentException();
+
+		if (heapSize < capacity) {
+			heap[heapSize] = elem;
+			swin(heapSize++);
+			return true;
+		}
+		if (elem.compareTo(elementAt(0)) <= 0)
+			return false;
+		heap[0] = elem;
+		sink(0);
+		return true;
+	}
+
+	public boolean add(t elem) {
+		return offer(elem);
+	}
+
+	public boolean insert(t elem) {
+		return offer(elem);
+	}
+
+	// removes all the elements kept and returns them from the largest to the smallest
+	public List<t> drainSorted() {
+		Object[] sorted = new Object[heapSize];
+		for (int i = heapSize - 1; i >= 0; i--)
+			sorted[i] = poll();
+
+		List<t> result = new ArrayList<>(sorted.length);
+		for (Object elem : sorted)
+			result.add(cast(elem));
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <t> t cast(Object elem) {
+		return (t) elem;
+	}
+
+	private t elementAt(int i) {
+		return cast(heap[i]);
+	}
+
+	// going up to the root, the element is only written once it found its place
+	private void swin(int k) {
+		final t elem = elementAt(k);
+		while (k > 0) {
+			int parent = (k - 1) / 2;
+			t parentElem = elementAt(parent);
+			if (elem.compareTo(parentElem) >= 0)
+				break;
+			heap[k] = parentElem;
+			k = parent;
+		}
+		heap[k] = elem;
+	}
+
+	private void sink(int k) {
+		final t elem = elementAt(k);
+		while (true) {
+			int left = 2 * k + 1, right = left + 1, smallest = left;
+			if (left >= heapSize)
+				break;
+			if (right < heapSize && elementAt(right).compareTo(elementAt(left)) < 0)
+				smallest = right;
+			t smallestElem = elementAt(smallest);
+			if (elem.compareTo(smallestElem) <= 0)
+				break;
+			heap[k] = smallestElem;
+			k = smallest;
+		}
+		heap[k] = elem;
+	}
+
+	// checks the heap invariant, for testing purposes
+	public boolean isMinHeap() {
+		for (int i = 1; i < heapSize; i++)
+			if (elementAt(i).compareTo(elementAt((i - 1) / 2)) < 0)
+				return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(heap, heapSize));
+	}
+}
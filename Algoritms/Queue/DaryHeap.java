@@ -0,0 +1,194 @@
+package Queue;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// a min priority queue like PQueue, kept as a d-ary heap in a plain array.
+//
+// every node has 'd' children instead of 2: the children of node k are d*k+1 .. d*k+d and
+// its parent is (k-1)/d. The tree is then only log_d(n) levels high, so an add, which
+// only ever swims up, goes through fewer levels, and the children compared by a poll sit
+// next to each other in memory. A poll compares up to d children per level though, so
+// 4 or 8 suit workloads where adds outnumber polls.
+//
+// unlike PQueue no positions are tracked, so contains and remove(elem) are O(n) scans.
+public class DaryHeap<t extends Comparable<t>> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// the branching factor
+	private final int d;
+
+	private int heapSize = 0;
+	private Object[] heap;
+
+	public DaryHeap(int d) {
+		this(d, DEFAULT_CAPACITY);
+	}
+
+	// designated constructor
+	public DaryHeap(int d, int capacity) {
+		if (d < 2)
+			throw new IllegalArgumentException("d must be at least 2: " + d);
+		if (capacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+
+		this.d = d;
+		heap = new Object[Math.max(1, capacity)];
+	}
+
+	// O(n) heapify construction
+	public DaryHeap(int d, t[] elems) {
+		this(d, elems.length);
+		for (t elem : elems)
+			if (elem == null)
+				throw new IllegalArgumentException();
+
+		System.arraycopy(elems, 0, heap, 0, elems.length);
+		heapSize = elems.length;
+		for (int i = heapSize == 0 ? -1 : (heapSize - 2) / d; i >= 0; i--)
+			sink(i);
+	}
+
+	public DaryHeap(int d, Collection<t> elems) {
+		this(d, elems.size());
+		for (t elem : elems)
+			add(elem);
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public int arity() {
+		return d;
+	}
+
+	public void clear() {
+		Arrays.fill(heap, 0, heapSize, null);
+		heapSize = 0;
+	}
+
+	// returns the value of the element with lowest priority
+	public t peek() {
+		if (isEmpty())
+			return null;
+		return elementAt(0);
+	}
+
+	// removes the root of the heap
+	public t poll() {
+		return isEmpty() ? null : removeAt(0);
+	}
+
+	public boolean contains(t elem) {
+		return elem != null && indexOf(elem) != -1;
+	}
+
+	public void add(t elem) {
+		if (elem == null)
+			throw new IllegalArgumentException();
+		if (heapSize == heap.length)
+			heap = Arrays.copyOf(heap, heap.length + Math.max(1, heap.length >> 1));
+
+		heap[heapSize] = elem;
+		swim(heapSize++);
+	}
+
+	public void insert(t elem) {
+		add(elem);
+	}
+
+	public boolean remove(t elem) {
+		if (elem == null)
+			return false;
+		int i = indexOf(elem);
+		if (i != -1)
+			removeAt(i);
+		return i != -1;
+	}
+
+	private int indexOf(t elem) {
+		for (int i = 0; i < heapSize; i++)
+			if (elem.equals(heap[i]))
+				return i;
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private t elementAt(int i) {
+		return (t) heap[i];
+	}
+
+	private t removeAt(int i) {
+		t removed = elementAt(i);
+		t last = elementAt(--heapSize);
+		heap[heapSize] = null;
+		if (i != heapSize) {
+			heap[i] = last;
+			sink(i);
+			if (heap[i] == last)
+				swim(i);
+		}
+		return removed;
+	}
+
+	// going up to the root, the element is only written once it found its place
+	private void swim(int k) {
+		final t elem = elementAt(k);
+		while (k > 0) {
+			int parent = (k - 1) / d;
+			t parentElem = elementAt(parent);
+			if (elem.compareTo(parentElem) >= 0)
+				break;
+			heap[k] = parentElem;
+			k = parent;
+		}
+		heap[k] = elem;
+	}
+
+	private void sink(int k) {
+		final t elem = elementAt(k);
+		while (true) {
+			// computed in long, d * k overflows an int for large arities and heaps
+			long firstChild = (long) d * k + 1;
+			if (firstChild >= heapSize)
+				break;
+
+			// find the smallest of the (up to d) children
+			int first = (int) firstChild;
+			int smallest = first, last = (int) Math.min(firstChild + d, heapSize);
+			t smallestElem = elementAt(first);
+			for (int child = first + 1; child < last; child++) {
+				t childElem = elementAt(child);
+				if (childElem.compareTo(smallestElem) < 0) {
+					smallest = child;
+					smallestElem = childElem;
+				}
+			}
+
+			if (elem.compareTo(smallestElem) <= 0)
+				break;
+			heap[k] = smallestElem;
+			k = smallest;
+		}
+		heap[k] = elem;
+	}
+
+	// checks the heap invariant, for testing purposes
+	public boolean isMinHeap() {
+		for (int i = 1; i < heapSize; i++)
+			if (elementAt(i).compareTo(elementAt((i - 1) / d)) < 0)
+				return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(heap, heapSize));
+	}
+}
@@ -0,0 +1,244 @@
+package Queue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// a min priority queue of values attached to dense int ids (key indexes) in [0, maxSize).
+//
+// instead of the map from values to the TreeSet of their positions PQueue keeps, the
+// positions are tracked by two int arrays: pm maps a key index to its position in the
+// heap and im maps a heap position back to its key index, so pm[im[i]] = i and
+// im[pm[ki]] = ki. Finding, updating or removing the value of a key index is then O(1)
+// to locate plus O(log(n)) to restore the heap, and nothing is ever allocated after
+// construction, which suits Dijkstra style algorithms that keep decreasing keys.
+public class IndexedPriorityQueue<t extends Comparable<t>> {
+
+	// the number of elements in the heap and the maximum number of key indexes
+	private int size;
+	private final int maxSize;
+
+	// pm[ki] is the position of key index 'ki' in the heap, -1 if it's not inside
+	private final int[] pm;
+
+	// im[i] is the key index at position 'i' of the heap
+	private final int[] im;
+
+	// values[ki] is the value attached to key index 'ki'
+	private final Object[] values;
+
+	public IndexedPriorityQueue(int maxSize) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("maxSize <= 0");
+
+		this.maxSize = maxSize;
+		pm = new int[maxSize];
+		im = new int[maxSize];
+		values = new Object[maxSize];
+		Arrays.fill(pm, -1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			pm[im[i]] = -1;
+			values[im[i]] = null;
+		}
+		size = 0;
+	}
+
+	public boolean contains(int ki) {
+		keyInBounds(ki);
+		return pm[ki] != -1;
+	}
+
+	// returns the key index with the smallest value
+	public int peekMinKeyIndex() {
+		isNotEmpty();
+		return im[0];
+	}
+
+	// removes the key index with the smallest value and returns it
+	public int pollMinKeyIndex() {
+		int minki = peekMinKeyIndex();
+		delete(minki);
+		return minki;
+	}
+
+	// returns the smallest value
+	public t peekMinValue() {
+		isNotEmpty();
+		return valueAt(im[0]);
+	}
+
+	// removes the smallest value and returns it
+	public t pollMinValue() {
+		t minValue = peekMinValue();
+		delete(im[0]);
+		return minValue;
+	}
+
+	public void insert(int ki, t value) {
+		if (contains(ki))
+			throw new IllegalArgumentException("index already exists; received: " + ki);
+		valueNotNull(value);
+		pm[ki] = size;
+		im[size] = ki;
+		values[ki] = value;
+		swim(size++);
+	}
+
+	public void add(int ki, t value) {
+		insert(ki, value);
+	}
+
+	public t valueOf(int ki) {
+		keyExists(ki);
+		return valueAt(ki);
+	}
+
+	// removes key index 'ki' and returns its value
+	public t delete(int ki) {
+		keyExists(ki);
+		final int i = pm[ki];
+		t value = valueAt(ki);
+
+		// move the last element into the hole and let it sink or swim from there
+		int lastki = im[--size];
+		pm[ki] = -1;
+		values[ki] = null;
+		if (i != size) {
+			im[i] = lastki;
+			pm[lastki] = i;
+			sink(i);
+			swim(pm[lastki]);
+		}
+		return value;
+	}
+
+	public t remove(int ki) {
+		return delete(ki);
+	}
+
+	// replaces the value of key index 'ki' and returns the old one
+	public t update(int ki, t value) {
+		keyExists(ki);
+		valueNotNull(value);
+		final int i = pm[ki];
+		t oldValue = valueAt(ki);
+		values[ki] = value;
+		sink(i);
+		swim(pm[ki]);
+		return oldValue;
+	}
+
+	// lowers the value of key index 'ki', does nothing if 'value' is not smaller
+	public void decreaseKey(int ki, t value) {
+		keyExists(ki);
+		valueNotNull(value);
+		if (value.compareTo(valueAt(ki)) < 0) {
+			values[ki] = value;
+			swim(pm[ki]);
+		}
+	}
+
+	// raises the value of key index 'ki', does nothing if 'value' is not larger
+	public void increaseKey(int ki, t value) {
+		keyExists(ki);
+		valueNotNull(value);
+		if (valueAt(ki).compareTo(value) < 0) {
+			values[ki] = value;
+			sink(pm[ki]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private t valueAt(int ki) {
+		return (t) values[ki];
+	}
+
+	// testing if the value at heap position i < the one at position j
+	private boolean less(int i, int j) {
+		return valueAt(im[i]).compareTo(valueAt(im[j])) < 0;
+	}
+
+	// going up to the root, the element is only written once it found its place
+	private void swim(int i) {
+		final int ki = im[i];
+		final t value = valueAt(ki);
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (value.compareTo(valueAt(im[parent])) >= 0)
+				break;
+			im[i] = im[parent];
+			pm[im[i]] = i;
+			i = parent;
+		}
+		im[i] = ki;
+		pm[ki] = i;
+	}
+
+	private void sink(int i) {
+		final int ki = im[i];
+		final t value = valueAt(ki);
+		while (true) {
+			int left = 2 * i + 1, right = left + 1, smallest = left;
+			if (left >= size)
+				break;
+			if (right < size && less(right, left))
+				smallest = right;
+			if (value.compareTo(valueAt(im[smallest])) <= 0)
+				break;
+			im[i] = im[smallest];
+			pm[im[i]] = i;
+			i = smallest;
+		}
+		im[i] = ki;
+		pm[ki] = i;
+	}
+
+	private void isNotEmpty() {
+		if (isEmpty())
+			throw new NoSuchElementException("Priority queue underflow");
+	}
+
+	private void keyExists(int ki) {
+		if (!contains(ki))
+			throw new NoSuchElementException("Index does not exist; received: " + ki);
+	}
+
+	private void keyInBounds(int ki) {
+		if (ki < 0 || ki >= maxSize)
+			throw new IllegalArgumentException("Key index out of bounds; received: " + ki);
+	}
+
+	private static void valueNotNull(Object value) {
+		if (value == null)
+			throw new IllegalArgumentException("value cannot be null");
+	}
+
+	// checks the heap invariant, for testing purposes
+	public boolean isMinHeap() {
+		for (int i = 1; i < size; i++)
+			if (less(i, (i - 1) / 2))
+				return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(im[i]).append('=').append(values[im[i]]);
+		}
+		return sb.append(']').toString();
+	}
+}
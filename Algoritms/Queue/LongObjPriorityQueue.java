@@ -0,0 +1,146 @@
+package Queue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// a min priority queue of values ordered by primitive long priorities. It is the heap of
+// LongPriorityQueue with a parallel array of payloads moved along with the priorities, so
+// the ordering still only compares longs and the values need not be Comparable.
+public class LongObjPriorityQueue<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int heapSize = 0;
+	private long[] priorities;
+	private Object[] values;
+
+	public LongObjPriorityQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongObjPriorityQueue(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		priorities = new long[Math.max(1, capacity)];
+		values = new Object[priorities.length];
+	}
+
+	// O(n) heapify construction, values[i] goes with priorities[i]. Both arrays are copied
+	public LongObjPriorityQueue(long[] priorities, V[] values) {
+		if (priorities.length != values.length)
+			throw new IllegalArgumentException("priorities and values have mismatched lengths");
+
+		this.priorities = Arrays.copyOf(priorities, Math.max(1, priorities.length));
+		this.values = Arrays.copyOf(values, this.priorities.length, Object[].class);
+		heapSize = priorities.length;
+		for (int i = Math.max(0, (heapSize / 2) - 1); i >= 0; i--)
+			sink(i);
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(values, 0, heapSize, null);
+		heapSize = 0;
+	}
+
+	// returns the smallest priority
+	public long peekPriority() {
+		if (isEmpty())
+			throw new NoSuchElementException("Priority queue underflow");
+		return priorities[0];
+	}
+
+	// returns the value with the smallest priority
+	@SuppressWarnings("unchecked")
+	public V peek() {
+		peekPriority();
+		return (V) values[0];
+	}
+
+	// removes the value with the smallest priority and returns it
+	public V poll() {
+		V min = peek();
+		heapSize--;
+		long lastPriority = priorities[heapSize];
+		Object lastValue = values[heapSize];
+		values[heapSize] = null;
+		if (heapSize > 0)
+			sink(0, lastPriority, lastValue);
+		return min;
+	}
+
+	public void add(long priority, V value) {
+		if (heapSize == priorities.length) {
+			int capacity = priorities.length + Math.max(1, priorities.length >> 1);
+			priorities = Arrays.copyOf(priorities, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		swim(heapSize++, priority, value);
+	}
+
+	public void insert(long priority, V value) {
+		add(priority, value);
+	}
+
+	// moves the entry ('priority', 'value') up from the hole at 'k' to its place
+	private void swim(int k, long priority, Object value) {
+		while (k > 0) {
+			int parent = (k - 1) / 2;
+			if (priority >= priorities[parent])
+				break;
+			priorities[k] = priorities[parent];
+			values[k] = values[parent];
+			k = parent;
+		}
+		priorities[k] = priority;
+		values[k] = value;
+	}
+
+	private void sink(int k) {
+		sink(k, priorities[k], values[k]);
+	}
+
+	// moves the entry ('priority', 'value') down from the hole at 'k' to its place
+	private void sink(int k, long priority, Object value) {
+		while (true) {
+			int left = 2 * k + 1, right = left + 1, smallest = left;
+			if (left >= heapSize)
+				break;
+			if (right < heapSize && priorities[right] < priorities[left])
+				smallest = right;
+			if (priority <= priorities[smallest])
+				break;
+			priorities[k] = priorities[smallest];
+			values[k] = values[smallest];
+			k = smallest;
+		}
+		priorities[k] = priority;
+		values[k] = value;
+	}
+
+	// checks the heap invariant, for testing purposes
+	public boolean isMinHeap() {
+		for (int i = 1; i < heapSize; i++)
+			if (priorities[i] < priorities[(i - 1) / 2])
+				return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < heapSize; i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(priorities[i]).append('=').append(values[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
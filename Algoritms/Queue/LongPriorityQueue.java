@@ -0,0 +1,123 @@
+package Queue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// a min priority queue of primitive longs, the binary heap of PQueue kept in a long[].
+// Nothing is boxed and comparing two priorities is a single '<' instead of a compareTo
+// call, which is what a scheduler ordering deadline timestamps spends most of its time on.
+public class LongPriorityQueue {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int heapSize = 0;
+	private long[] heap;
+
+	public LongPriorityQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongPriorityQueue(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		heap = new long[Math.max(1, capacity)];
+	}
+
+	// O(n) heapify construction, 'elems' is copied
+	public LongPriorityQueue(long[] elems) {
+		heap = Arrays.copyOf(elems, Math.max(1, elems.length));
+		heapSize = elems.length;
+		for (int i = Math.max(0, (heapSize / 2) - 1); i >= 0; i--)
+			sink(i);
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public void clear() {
+		heapSize = 0;
+	}
+
+	// returns the smallest element
+	public long peek() {
+		if (isEmpty())
+			throw new NoSuchElementException("Priority queue underflow");
+		return heap[0];
+	}
+
+	// removes the smallest element and returns it
+	public long poll() {
+		long min = peek();
+		long last = heap[--heapSize];
+		if (heapSize > 0) {
+			heap[0] = last;
+			sink(0);
+		}
+		return min;
+	}
+
+	public boolean contains(long elem) {
+		for (int i = 0; i < heapSize; i++)
+			if (heap[i] == elem)
+				return true;
+		return false;
+	}
+
+	public void add(long elem) {
+		if (heapSize == heap.length)
+			heap = Arrays.copyOf(heap, heap.length + Math.max(1, heap.length >> 1));
+		heap[heapSize] = elem;
+		swim(heapSize++);
+	}
+
+	public void insert(long elem) {
+		add(elem);
+	}
+
+	// going up to the root, the element is only written once it found its place
+	private void swim(int k) {
+		final long elem = heap[k];
+		while (k > 0) {
+			int parent = (k - 1) / 2;
+			if (elem >= heap[parent])
+				break;
+			heap[k] = heap[parent];
+			k = parent;
+		}
+		heap[k] = elem;
+	}
+
+	private void sink(int k) {
+		final long elem = heap[k];
+		while (true) {
+			int left = 2 * k + 1, right = left + 1, smallest = left;
+			if (left >= heapSize)
+				break;
+			if (right < heapSize && heap[right] < heap[left])
+				smallest = right;
+			if (elem <= heap[smallest])
+				break;
+			heap[k] = heap[smallest];
+			k = smallest;
+		}
+		heap[k] = elem;
+	}
+
+	// checks the heap invariant, for testing purposes
+	public boolean isMinHeap() {
+		for (int i = 1; i < heapSize; i++)
+			if (heap[i] < heap[(i - 1) / 2])
+				return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(heap, heapSize));
+	}
+}
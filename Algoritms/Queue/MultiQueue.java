@@ -0,0 +1,137 @@
+package Queue;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// a thread safe, relaxed min priority queue: a MultiQueue of several DaryHeaps.
+//
+// a single heap behind a lock serializes every thread on its root, so instead the elements
+// are spread over many heaps, each with its own lock. An add goes to a random heap. A poll
+// looks at the minimums of two random heaps and takes the smaller one, which keeps the
+// returned elements close to the true minimum (in expectation among the smallest
+// O(number of heaps) elements) while threads rarely meet on the same lock. A heap found
+// locked is simply traded for another random one instead of waited on.
+//
+// the minimum of every heap is published in a volatile field so that the two choices of a
+// poll can be compared without taking any lock.
+public class MultiQueue<t extends Comparable<t>> {
+
+	// the arity of the heaps, 4 to 8 beat a binary heap on adds and polls in DaryHeapBenchmark
+	private static final int ARITY = 4;
+
+	// the number of heaps per thread expected to use the queue
+	private static final int HEAPS_PER_THREAD = 2;
+
+	private final Shard<t>[] shards;
+	private final AtomicInteger size = new AtomicInteger();
+
+	private static final class Shard<t extends Comparable<t>> {
+		final ReentrantLock lock = new ReentrantLock();
+		final DaryHeap<t> heap = new DaryHeap<>(ARITY);
+
+		// the minimum of 'heap', null when it is empty. Only written under the lock
+		volatile t top;
+	}
+
+	// a queue sized for every available processor using it
+	public MultiQueue() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	// designated constructor, 'threads' is the number of threads expected to use the queue
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public MultiQueue(int threads) {
+		if (threads <= 0)
+			throw new IllegalArgumentException("Illegal number of threads: " + threads);
+
+		shards = new Shard[Math.max(2, HEAPS_PER_THREAD * threads)];
+		for (int i = 0; i < shards.length; i++)
+			shards[i] = new Shard<>();
+	}
+
+	// the number of elements, exact once no add or poll is running
+	public int size() {
+		return size.get();
+	}
+
+	public boolean isEmpty() {
+		return size.get() == 0;
+	}
+
+	public void add(t elem) {
+		if (elem == null)
+			throw new IllegalArgumentException();
+
+		// counted first so that the size never drops below the number of elements polls
+		// can find, and a poll seeing a size of 0 knows the queue was empty
+		size.incrementAndGet();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Shard<t> shard;
+		do {
+			shard = shards[random.nextInt(shards.length)];
+		} while (!shard.lock.tryLock());
+		try {
+			shard.heap.add(elem);
+			shard.top = shard.heap.peek();
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	public void insert(t elem) {
+		add(elem);
+	}
+
+	// removes an element close to the smallest one and returns it, or null if the queue
+	// is empty
+	public t poll() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (size.get() > 0) {
+			Shard<t> a = shards[random.nextInt(shards.length)], b = shards[random.nextInt(shards.length)];
+			t topA = a.top, topB = b.top;
+			if (topA == null && topB == null)
+				continue;
+
+			Shard<t> shard = topB == null || (topA != null && topA.compareTo(topB) <= 0) ? a : b;
+			if (!shard.lock.tryLock())
+				continue;
+			try {
+				t elem = shard.heap.poll();
+				if (elem == null)
+					continue;
+				shard.top = shard.heap.peek();
+				size.decrementAndGet();
+				return elem;
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return null;
+	}
+
+	// returns the smallest of the heap minimums, which may be gone by the time the caller
+	// looks at it, or null if the queue is empty
+	public t peek() {
+		t min = null;
+		for (Shard<t> shard : shards) {
+			t top = shard.top;
+			if (top != null && (min == null || top.compareTo(min) < 0))
+				min = top;
+		}
+		return min;
+	}
+
+	public void clear() {
+		for (Shard<t> shard : shards) {
+			shard.lock.lock();
+			try {
+				size.addAndGet(-shard.heap.size());
+				shard.heap.clear();
+				shard.top = null;
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+}
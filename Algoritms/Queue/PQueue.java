@@ -134,8 +134,8 @@ public class PQueue<t extends Comparable<t>> {
 		t i_elem = heap.get(i);
 		t j_elem = heap.get(j);
 
-		heap.set(i, i_elem);
-		heap.set(j, j_elem);
+		heap.set(i, j_elem);
+		heap.set(j, i_elem);
 
 		mapSwap(i_elem, j_elem, i, j);
 	}
@@ -0,0 +1,139 @@
+package UnionFind;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+// a thread safe, lock free version of UnionFind in the style of Anderson and Woll.
+//
+// the forest is a single array of parent links which is only ever changed by compare and
+// set. A root is linked under another root with a CAS that fails if it stopped being a root
+// in the meantime, in which case the union simply starts over. find shortens the paths it
+// walks by path halving, pointing every other node at its grandparent with a CAS: losing
+// that race is harmless since the node then already points further up.
+//
+// component sizes cannot be kept up to date without a lock, so instead of union by size
+// the roots are linked by a fixed random priority (a bijective hash of the index), which
+// keeps the trees just as shallow in expectation.
+public class ConcurrentUnionFind {
+
+	// below this many edges unifyAll runs in the calling thread
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private final int size;
+
+	// the number of successful unions, the number of components is size minus this
+	private final LongAdder unions = new LongAdder();
+
+	// parent links, 'i' is a root when parent[i] == i
+	private final AtomicIntegerArray parent;
+
+	public ConcurrentUnionFind(int size) {
+		if (size <= 0)
+			throw new IllegalArgumentException("Negative numbers not allowed");
+
+		this.size = size;
+		parent = new AtomicIntegerArray(size);
+		for (int i = 0; i < size; i++)
+			parent.lazySet(i, i); // link to itself (self root)
+	}
+
+	// the linking priority of 'i', a bijection so no two elements share one
+	private static int priority(int i) {
+		i *= 0x9E3779B9;
+		return i ^ (i >>> 16);
+	}
+
+	// find which component/set 'p' belongs to. The root returned may already have been
+	// linked under another one by the time the caller looks at it
+	public int find(int p) {
+		if (p < 0 || p >= size)
+			throw new IllegalArgumentException("element out of range: " + p);
+
+		// path halving: point 'p' at its grandparent and move on to it
+		for (int up = parent.get(p); up != p;) {
+			int grandParent = parent.get(up);
+			if (grandParent == up)
+				return up;
+			parent.compareAndSet(p, up, grandParent);
+			p = grandParent;
+			up = parent.get(p);
+		}
+		return p;
+	}
+
+	// return whether or not the elements 'p' and 'q' are in the same components/set. The
+	// answer is only given once the root of 'p' is seen to still be a root after finding
+	// the root of 'q', so it holds at that instant
+	public boolean connected(int p, int q) {
+		while (true) {
+			int root1 = find(p), root2 = find(q);
+			if (root1 == root2)
+				return true;
+			if (parent.get(root1) == root1)
+				return false;
+		}
+	}
+
+	// unify the components/sets containing elements 'p' and 'q', returns false if they
+	// already were in the same one
+	public boolean unify(int p, int q) {
+		while (true) {
+			int root1 = find(p), root2 = find(q);
+
+			// these elements are already in the same group
+			if (root1 == root2)
+				return false;
+
+			// link the root of lower priority under the other one, the CAS fails if
+			// another thread linked it first and the roots have to be found again
+			if (priority(root1) < priority(root2)) {
+				int tmp = root1;
+				root1 = root2;
+				root2 = tmp;
+			}
+			if (parent.compareAndSet(root2, root2, root1)) {
+				unions.increment();
+				return true;
+			}
+		}
+	}
+
+	// unify p[k] and q[k] for every k in the calling thread
+	public void unifyAll(int[] p, int[] q) {
+		checkBatch(p, q);
+		for (int k = 0; k < p.length; k++)
+			unify(p[k], q[k]);
+	}
+
+	// unify p[k] and q[k] for every k, with the edges spread over the threads of 'pool'.
+	// The order in which they are unified does not change the resulting components
+	public void unifyAll(int[] p, int[] q, ForkJoinPool pool) {
+		checkBatch(p, q);
+		if (pool == null)
+			throw new IllegalArgumentException("pool cannot be null");
+		if (p.length < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+			unifyAll(p, q);
+			return;
+		}
+		pool.submit(() -> IntStream.range(0, p.length).parallel().forEach(k -> unify(p[k], q[k]))).join();
+	}
+
+	private static void checkBatch(int[] p, int[] q) {
+		if (p == null || q == null)
+			throw new IllegalArgumentException("edge arrays cannot be null");
+		if (p.length != q.length)
+			throw new IllegalArgumentException("edge arrays have mismatched lengths");
+	}
+
+	// return the number of elements in this UnionFind/Disjoint set
+	public int size() {
+		return size;
+	}
+
+	// returns the number of remaining components/sets, exact once the unions are over
+	public int components() {
+		return size - (int) unions.sum();
+	}
+}
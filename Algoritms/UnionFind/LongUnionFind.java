@@ -0,0 +1,130 @@
+package UnionFind;
+
+import java.util.Arrays;
+
+// a UnionFind indexed by longs, for more elements than an int can count.
+//
+// the elements live in fixed size segments of SEGMENT_SIZE longs instead of one array, so
+// no contiguous block has to be found for them and growing never copies the elements, only
+// the small array of segments. A single long is kept per element: the parent of a non root
+// element, or minus the size of its component for a root. Roots start out as -1.
+public class LongUnionFind {
+
+	private static final int SEGMENT_SHIFT = 20;
+	private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+	private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+	private long size, numComponents;
+
+	// the segments holding the elements, allocated as the element count grows
+	private long[][] segments;
+
+	public LongUnionFind(long size) {
+		if (size <= 0)
+			throw new IllegalArgumentException("Negative numbers not allowed");
+
+		segments = new long[0][];
+		grow(size);
+	}
+
+	private long get(long i) {
+		return segments[(int) (i >>> SEGMENT_SHIFT)][(int) i & SEGMENT_MASK];
+	}
+
+	private void set(long i, long v) {
+		segments[(int) (i >>> SEGMENT_SHIFT)][(int) i & SEGMENT_MASK] = v;
+	}
+
+	private void checkElement(long p) {
+		if (p < 0 || p >= size)
+			throw new IllegalArgumentException("element out of range: " + p);
+	}
+
+	// grow the number of elements to 'newSize', the new elements are each in a
+	// component/set of their own. Nothing happens if there already are that many
+	public void grow(long newSize) {
+		if (newSize <= size)
+			return;
+
+		long segmentCount = ((newSize - 1) >>> SEGMENT_SHIFT) + 1;
+		if (segmentCount > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Too many elements: " + newSize);
+
+		// double the array of segments so that adding elements one by one stays cheap
+		if (segmentCount > segments.length) {
+			long doubled = Math.min(2L * segments.length, Integer.MAX_VALUE - 8);
+			segments = Arrays.copyOf(segments, (int) Math.max(segmentCount, doubled));
+		}
+
+		for (int s = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT); s < segmentCount; s++) {
+			segments[s] = new long[SEGMENT_SIZE];
+			Arrays.fill(segments[s], -1L); // each component is originally of size one
+		}
+
+		numComponents += newSize - size;
+		size = newSize;
+	}
+
+	// add a new element in a component/set of its own and return it
+	public long add() {
+		grow(size + 1);
+		return size - 1;
+	}
+
+	// find which component/set 'p' belongs to, takes amortized constant time
+	public long find(long p) {
+		checkElement(p);
+
+		// path halving, every node on the way is pointed at its grandparent
+		for (long up = get(p); up >= 0; up = get(p)) {
+			long grandParent = get(up);
+			if (grandParent < 0)
+				return up;
+			set(p, grandParent);
+			p = grandParent;
+		}
+		return p;
+	}
+
+	// return whether or not the elements 'p' and
+	// 'q' are int the same components/set
+	public boolean connected(long p, long q) {
+		return find(p) == find(q);
+	}
+
+	// return the size of the components/set 'p' belongs to
+	public long componentSize(long p) {
+		return -get(find(p));
+	}
+
+	// return the number of elements in this UnionFind/Disjoint set
+	public long size() {
+		return size;
+	}
+
+	// returns the number of remaining components/sets
+	public long components() {
+		return numComponents;
+	}
+
+	// unify the components/sets containing elements 'p' and 'q'
+	public void unify(long p, long q) {
+		long root1 = find(p);
+		long root2 = find(q);
+
+		// these elements are already in the same group
+		if (root1 == root2)
+			return;
+
+		// merge smaller components/set into the larger one, the sizes are negative
+		long size1 = -get(root1), size2 = -get(root2);
+		if (size1 < size2) {
+			set(root2, -(size1 + size2));
+			set(root1, root2);
+		} else {
+			set(root1, -(size1 + size2));
+			set(root2, root1);
+		}
+		numComponents--;
+	}
+}
@@ -28,27 +28,22 @@ public class UnionFind {
 	// find which component/set 'p' belongs to, takes amortized constant time
 	public int find(int p) {
 
-		// find the root of the component/set
-		int root = p;
-		while (root != id[root])
-			root = id[root];
-
-		// compress the path leading back to the root.
-		// doing this operation is called "path compression"
-		// and is what gives us amortized constant time complexity
-		while (p != root) {
-			int next = id[p];
-			id[p] = root;
-			p = next;
+		// walk up to the root, pointing every node on the way at its
+		// grandparent. This is called "path halving", it keeps the
+		// amortized constant time complexity of full path compression
+		// while walking the path once instead of twice
+		while (p != id[p]) {
+			id[p] = id[id[p]];
+			p = id[p];
 		}
-		return root;
+		return p;
 
 	}
 
 	// return whether or not the elements 'p' and
 	// 'q' are int the same components/set
 	public boolean connected(int p, int q) {
-		return find(p) == find(p);
+		return find(p) == find(q);
 	}
 
 	// return the size of the components/set 'p' belongs to
@@ -0,0 +1,140 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import HashTable.HashTableDoubleHashing;
+import HashTable.HashTableLinearProbing;
+import HashTable.HashTableOpenAddresingBase;
+import HashTable.HashTableQuadraticProbing;
+
+// the batch operations of the open addressing tables (putAll, getAll) against
+// calling insert and get once per key. Every invocation handles a whole batch, the
+// batches are taken one after the other out of a pool as large as the table so that
+// their slots are not still in the cache from the previous invocations
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchBenchmark {
+
+	public enum Impl {
+		LINEAR_PROBING(HashTableLinearProbing::new),
+		QUADRATIC_PROBING(HashTableQuadraticProbing::new),
+		DOUBLE_HASHING(HashTableDoubleHashing::new);
+
+		private final Supplier<HashTableOpenAddresingBase<BenchKey, Integer>> factory;
+
+		Impl(Supplier<HashTableOpenAddresingBase<BenchKey, Integer>> factory) {
+			this.factory = factory;
+		}
+
+		HashTableOpenAddresingBase<BenchKey, Integer> create() {
+			return factory.get();
+		}
+	}
+
+	@Param
+	public Impl impl;
+
+	// the number of keys already in the table, large enough that the slots miss the cache
+	@Param({ "1000000", "4000000" })
+	public int size;
+
+	@Param({ "1000" })
+	public int batchSize;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private BenchKey[] pool, batch;
+	private Integer[] batchValues, out;
+	private int cursor;
+	private HashTableOpenAddresingBase<BenchKey, Integer> table;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchKey[] keys = BenchKey.of(distribution.keys(size, 42));
+		table = impl.create();
+		for (int i = 0; i < size; i++)
+			table.put(keys[i], i);
+
+		pool = BenchKey.of(distribution.keys(size, 7));
+		batch = new BenchKey[batchSize];
+		batchValues = new Integer[batchSize];
+		for (int i = 0; i < batchSize; i++)
+			batchValues[i] = i;
+		out = new Integer[batchSize];
+	}
+
+	// copies the next batch of keys out of the pool
+	private BenchKey[] nextBatch() {
+		if (cursor + batchSize > size)
+			cursor = 0;
+		System.arraycopy(pool, cursor, batch, 0, batchSize);
+		cursor += batchSize;
+		return batch;
+	}
+
+	@Benchmark
+	public Integer[] getLoop() {
+		BenchKey[] batch = nextBatch();
+		for (int i = 0; i < batch.length; i++)
+			out[i] = table.get(batch[i]);
+		return out;
+	}
+
+	@Benchmark
+	public Integer[] getAll() {
+		table.getAll(nextBatch(), out);
+		return out;
+	}
+
+	// the keys are drawn from the domain of the table, so both put
+	// benchmarks mostly measure updates into a large table
+	@Benchmark
+	public Object putLoop() {
+		BenchKey[] batch = nextBatch();
+		for (int i = 0; i < batch.length; i++)
+			table.put(batch[i], batchValues[i]);
+		return table;
+	}
+
+	@Benchmark
+	public Object putAll() {
+		table.putAll(nextBatch(), batchValues);
+		return table;
+	}
+
+	// fills a fresh table with the batch, where the pre-sizing of putAll saves the resizes
+	@Benchmark
+	public Object buildLoop() {
+		BenchKey[] batch = nextBatch();
+		HashTableOpenAddresingBase<BenchKey, Integer> t = impl.create();
+		for (int i = 0; i < batch.length; i++)
+			t.put(batch[i], batchValues[i]);
+		return t;
+	}
+
+	@Benchmark
+	public Object buildPutAll() {
+		HashTableOpenAddresingBase<BenchKey, Integer> t = impl.create();
+		t.putAll(nextBatch(), batchValues);
+		return t;
+	}
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import HashTable.SecondaryHash;
+
+// a boxed int key usable by every hash table, including HashTableDoubleHashing
+// which needs a secondary hash. All the tables and the JDK baselines use it so
+// they pay the same hashCode/equals cost
+public final class BenchKey implements SecondaryHash, Comparable<BenchKey> {
+
+	final int value;
+
+	public BenchKey(int value) {
+		this.value = value;
+	}
+
+	static BenchKey[] of(int[] values) {
+		BenchKey[] keys = new BenchKey[values.length];
+		for (int i = 0; i < values.length; i++)
+			keys[i] = new BenchKey(values[i]);
+		return keys;
+	}
+
+	@Override
+	public int hashCode() {
+		return value;
+	}
+
+	@Override
+	public int hasCode2() {
+		int h = value * 0x85EBCA6B;
+		return h ^ (h >>> 13);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof BenchKey && ((BenchKey) obj).value == value;
+	}
+
+	@Override
+	public int compareTo(BenchKey other) {
+		return Integer.compare(value, other.value);
+	}
+
+	@Override
+	public String toString() {
+		return Integer.toString(value);
+	}
+}
@@ -0,0 +1,143 @@
+package benchmarks;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import HashTable.HashTableSeparateChaining;
+import HashTable.Hasher;
+
+// string key lookups in HashTableSeparateChaining. The keys share a long prefix so
+// equals is expensive, and a high load factor keeps the chains long. EQUALS_ONLY is the
+// former chain walk which called equals on every entry without looking at the stored hash
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChainLookupBenchmark {
+
+	public enum Impl {
+		EQUALS_ONLY, HASH_FIRST, HASH_FIRST_XXHASH, JDK_HASHMAP
+	}
+
+	private static final String PREFIX = "tenant-0042/region-eu-west/service-checkout/session-";
+
+	@Param
+	public Impl impl;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	@Param({ "8" })
+	public double loadFactor;
+
+	private String[] lookups;
+	private HashTableSeparateChaining<String, Integer> table;
+	private EqualsOnlyChains equalsOnly;
+	private HashMap<String, Integer> hashMap;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String[] keys = new String[size];
+		for (int i = 0; i < size; i++)
+			keys[i] = PREFIX + i;
+
+		// half of the lookups miss, all of them are fresh copies so
+		// identity checks inside equals cannot short circuit anything
+		SplittableRandom random = new SplittableRandom(42);
+		lookups = new String[size];
+		for (int i = 0; i < size; i++)
+			lookups[i] = new String(PREFIX + random.nextInt(2 * size));
+
+		int capacity = (int) (size / loadFactor) + 1;
+		table = null;
+		equalsOnly = null;
+		hashMap = null;
+		switch (impl) {
+		case EQUALS_ONLY:
+			equalsOnly = new EqualsOnlyChains(capacity, keys);
+			break;
+		// a high treeify threshold so the chains stay chains
+		case HASH_FIRST:
+			table = new HashTableSeparateChaining<>(capacity, loadFactor, 64);
+			break;
+		case HASH_FIRST_XXHASH:
+			table = new HashTableSeparateChaining<>(capacity, loadFactor, 64, Hasher.xxHash32(0x5EED));
+			break;
+		case JDK_HASHMAP:
+			hashMap = new HashMap<>(capacity, (float) loadFactor);
+			break;
+		}
+		for (int i = 0; i < size; i++) {
+			if (table != null)
+				table.put(keys[i], i);
+			if (hashMap != null)
+				hashMap.put(keys[i], i);
+		}
+	}
+
+	@Benchmark
+	public Integer get() {
+		String key = lookups[cursor];
+		if (++cursor == size)
+			cursor = 0;
+		switch (impl) {
+		case EQUALS_ONLY:
+			return equalsOnly.get(key);
+		case JDK_HASHMAP:
+			return hashMap.get(key);
+		default:
+			return table.get(key);
+		}
+	}
+
+	// the chain layout of HashTableSeparateChaining with the old lookup
+	// which walks a chain calling equals on every single entry
+	static final class EqualsOnlyChains {
+		static final class Node {
+			final String key;
+			final Integer value;
+			final Node next;
+
+			Node(String key, Integer value, Node next) {
+				this.key = key;
+				this.value = value;
+				this.next = next;
+			}
+		}
+
+		private final Node[] table;
+
+		EqualsOnlyChains(int capacity, String[] keys) {
+			table = new Node[capacity];
+			for (int i = 0; i < keys.length; i++) {
+				int bucketIndex = (keys[i].hashCode() & 0x7FFFFFFF) % capacity;
+				table[bucketIndex] = new Node(keys[i], i, table[bucketIndex]);
+			}
+		}
+
+		Integer get(String key) {
+			int bucketIndex = (key.hashCode() & 0x7FFFFFFF) % table.length;
+			for (Node node = table[bucketIndex]; node != null; node = node.next)
+				if (node.key.equals(key))
+					return node.value;
+			return null;
+		}
+	}
+}
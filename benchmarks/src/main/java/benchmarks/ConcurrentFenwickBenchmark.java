@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FenwickTtree.ConcurrentFenwickTree;
+import FenwickTtree.FenwickTreeRangeQueryPointUpdate;
+
+// one tree of counters shared by 16 threads doing a write mostly mix of adds and range sums.
+// ConcurrentFenwickTree with one stripe and with one stripe per thread against
+// FenwickTreeRangeQueryPointUpdate behind a global lock
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentFenwickBenchmark {
+
+	public enum Impl {
+		SYNCHRONIZED, ATOMIC, STRIPED
+	}
+
+	@Param
+	public Impl impl;
+
+	@Param({ "1000", "1000000" })
+	public int size;
+
+	// percentage of the operations that are adds
+	@Param({ "90" })
+	public int writePercent;
+
+	private FenwickTreeRangeQueryPointUpdate synchronizedTree;
+	private ConcurrentFenwickTree concurrent;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		synchronizedTree = new FenwickTreeRangeQueryPointUpdate(size);
+		concurrent = new ConcurrentFenwickTree(size, impl == Impl.STRIPED ? 16 : 1);
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+	}
+
+	@Benchmark
+	public long mixed(ThreadState state) {
+		int a = 1 + state.random.nextInt(size);
+		if (state.random.nextInt(100) < writePercent) {
+			if (impl == Impl.SYNCHRONIZED) {
+				synchronized (synchronizedTree) {
+					synchronizedTree.add(a, 1L);
+				}
+			} else {
+				concurrent.add(a, 1L);
+			}
+			return a;
+		}
+		int b = 1 + state.random.nextInt(size), left = Math.min(a, b), right = Math.max(a, b);
+		if (impl == Impl.SYNCHRONIZED) {
+			synchronized (synchronizedTree) {
+				return synchronizedTree.sum(left, right);
+			}
+		}
+		return concurrent.sum(left, right);
+	}
+}
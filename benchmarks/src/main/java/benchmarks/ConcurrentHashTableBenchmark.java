@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import HashTable.ConcurrentHashTableSeparateChaining;
+import HashTable.HashTableSeparateChaining;
+
+// one table shared by 32 threads doing a read mostly mix of gets and puts.
+// ConcurrentHashTableSeparateChaining against HashTableSeparateChaining
+// behind a global lock and java.util.concurrent.ConcurrentHashMap
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(32)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentHashTableBenchmark {
+
+	public enum Impl {
+		CONCURRENT_CHAINING, SYNCHRONIZED_CHAINING, JDK_CONCURRENT_HASHMAP
+	}
+
+	@Param
+	public Impl impl;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	@Param
+	public KeyDistribution distribution;
+
+	// percentage of the operations that are puts
+	@Param({ "10" })
+	public int writePercent;
+
+	private BenchKey[] keys;
+	private ConcurrentHashTableSeparateChaining<BenchKey, Integer> concurrent;
+	private HashTableSeparateChaining<BenchKey, Integer> synchronizedTable;
+	private ConcurrentHashMap<BenchKey, Integer> jdk;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		keys = BenchKey.of(distribution.keys(size, 42));
+		concurrent = new ConcurrentHashTableSeparateChaining<>();
+		synchronizedTable = new HashTableSeparateChaining<>();
+		jdk = new ConcurrentHashMap<>();
+		for (int i = 0; i < size; i += 2) {
+			concurrent.put(keys[i], i);
+			synchronizedTable.put(keys[i], i);
+			jdk.put(keys[i], i);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+	}
+
+	@Benchmark
+	public Integer mixed(ThreadState state) {
+		int i = state.random.nextInt(size);
+		boolean write = state.random.nextInt(100) < writePercent;
+		BenchKey key = keys[i];
+		switch (impl) {
+		case CONCURRENT_CHAINING:
+			return write ? concurrent.put(key, i) : concurrent.get(key);
+		case SYNCHRONIZED_CHAINING:
+			synchronized (synchronizedTable) {
+				return write ? synchronizedTable.put(key, i) : synchronizedTable.get(key);
+			}
+		default:
+			return write ? jdk.put(key, i) : jdk.get(key);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Queue.MultiQueue;
+import Queue.PQueue;
+
+// one priority queue shared by 16 threads, each invocation adds a task and polls one so
+// the queue stays at 'size' elements. MultiQueue against PQueue behind a global lock and
+// java.util.concurrent.PriorityBlockingQueue
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentPQueueBenchmark {
+
+	public enum Impl {
+		MULTI_QUEUE, SYNCHRONIZED_PQUEUE, PRIORITY_BLOCKING_QUEUE
+	}
+
+	@Param
+	public Impl impl;
+
+	@Param({ "1000", "1000000" })
+	public int size;
+
+	private MultiQueue<Integer> multiQueue;
+	private PQueue<Integer> synchronizedQueue;
+	private PriorityBlockingQueue<Integer> blockingQueue;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		multiQueue = new MultiQueue<>(16);
+		synchronizedQueue = new PQueue<>(size);
+		blockingQueue = new PriorityBlockingQueue<>(size);
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < size; i++) {
+			Integer task = random.nextInt(size);
+			switch (impl) {
+			case MULTI_QUEUE:
+				multiQueue.add(task);
+				break;
+			case SYNCHRONIZED_PQUEUE:
+				synchronizedQueue.add(task);
+				break;
+			default:
+				blockingQueue.add(task);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+	}
+
+	@Benchmark
+	public Integer addPoll(ThreadState state) {
+		Integer task = state.random.nextInt(size);
+		switch (impl) {
+		case MULTI_QUEUE:
+			multiQueue.add(task);
+			return multiQueue.poll();
+		case SYNCHRONIZED_PQUEUE:
+			synchronized (synchronizedQueue) {
+				synchronizedQueue.add(task);
+				return synchronizedQueue.poll();
+			}
+		default:
+			blockingQueue.add(task);
+			return blockingQueue.poll();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import Queue.DaryHeap;
+
+// DaryHeap across branching factors. addPoll adds every element then polls them all, the
+// timer workload keeps the heap at 'size' elements and does 'pushesPerPoll' adds for
+// every poll, which is where the shallower trees of the larger arities should pay off
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DaryHeapBenchmark {
+
+	@Param({ "2", "4", "8", "16" })
+	public int arity;
+
+	@Param({ "100000", "1000000" })
+	public int size;
+
+	@Param({ "4" })
+	public int pushesPerPoll;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private Integer[] elems;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		int[] keys = distribution.keys(size, 42);
+		elems = new Integer[size];
+		for (int i = 0; i < size; i++)
+			elems[i] = keys[i];
+	}
+
+	@Benchmark
+	public void addPoll(Blackhole bh) {
+		DaryHeap<Integer> heap = new DaryHeap<>(arity, size);
+		for (Integer elem : elems)
+			heap.add(elem);
+		while (!heap.isEmpty())
+			bh.consume(heap.poll());
+	}
+
+	// timers due later than the ones already queued, in batches of 'pushesPerPoll'
+	// followed by firing the earliest one
+	@Benchmark
+	public void timers(Blackhole bh) {
+		DaryHeap<Integer> heap = new DaryHeap<>(arity, size);
+		int now = 0;
+		for (int i = 0; i < size; i++) {
+			heap.add(now + elems[i]);
+			if (i % pushesPerPoll == 0)
+				now = heap.poll();
+		}
+		bh.consume(heap.peek());
+	}
+}
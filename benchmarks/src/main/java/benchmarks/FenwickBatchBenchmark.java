@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FenwickTtree.FenwickTreeRangeQueryPointUpdate;
+
+// the batch methods of FenwickTreeRangeQueryPointUpdate (sumAll, addAll and the parallel
+// construction) against a loop of single calls. Every invocation handles a whole batch,
+// the parallel variants run on the common pool so they only pay off with several cores
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FenwickBatchBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	@Param({ "1000", "1000000" })
+	public int batchSize;
+
+	private long[] values, deltas, out;
+	private int[] lefts, rights;
+	private FenwickTreeRangeQueryPointUpdate tree;
+
+	@Setup
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(42);
+		// one based values
+		values = new long[size + 1];
+		for (int i = 1; i <= size; i++)
+			values[i] = random.nextInt(1000);
+
+		lefts = new int[batchSize];
+		rights = new int[batchSize];
+		deltas = new long[batchSize];
+		out = new long[batchSize];
+		for (int k = 0; k < batchSize; k++) {
+			int a = 1 + random.nextInt(size), b = 1 + random.nextInt(size);
+			lefts[k] = Math.min(a, b);
+			rights[k] = Math.max(a, b);
+			deltas[k] = random.nextInt(100);
+		}
+		tree = new FenwickTreeRangeQueryPointUpdate(values);
+	}
+
+	@Benchmark
+	public long[] sumLoop() {
+		for (int k = 0; k < batchSize; k++)
+			out[k] = tree.sum(lefts[k], rights[k]);
+		return out;
+	}
+
+	@Benchmark
+	public long[] sumAll() {
+		tree.sumAll(lefts, rights, out);
+		return out;
+	}
+
+	@Benchmark
+	public long[] sumAllParallel() {
+		tree.sumAll(lefts, rights, out, ForkJoinPool.commonPool());
+		return out;
+	}
+
+	@Benchmark
+	public FenwickTreeRangeQueryPointUpdate addLoop() {
+		for (int k = 0; k < batchSize; k++)
+			tree.add(lefts[k], deltas[k]);
+		return tree;
+	}
+
+	@Benchmark
+	public FenwickTreeRangeQueryPointUpdate addAll() {
+		tree.addAll(lefts, deltas);
+		return tree;
+	}
+
+	@Benchmark
+	public FenwickTreeRangeQueryPointUpdate construct() {
+		return new FenwickTreeRangeQueryPointUpdate(values);
+	}
+
+	@Benchmark
+	public FenwickTreeRangeQueryPointUpdate constructParallel() {
+		return new FenwickTreeRangeQueryPointUpdate(values, ForkJoinPool.commonPool());
+	}
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import FenwickTtree.FenwickTreeRangeQueryPointUpdate;
+import FenwickTtree.FenwickTreeRangeUpdatePointQuery;
+
+// construction, update and query costs of both Fenwick trees. The
+// distribution decides which indexes the updates and queries touch
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FenwickTreeBenchmark {
+
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private long[] values;
+	private int[] lefts, rights;
+	private FenwickTreeRangeQueryPointUpdate rangeQuery;
+	private FenwickTreeRangeUpdatePointQuery rangeUpdate;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(42);
+		// one based values
+		values = new long[size + 1];
+		for (int i = 1; i <= size; i++)
+			values[i] = random.nextInt(1000);
+
+		int[] a = distribution.keys(size, 42), b = distribution.keys(size, 7);
+		lefts = new int[size];
+		rights = new int[size];
+		for (int i = 0; i < size; i++) {
+			lefts[i] = Math.min(a[i], b[i]) + 1;
+			rights[i] = Math.max(a[i], b[i]) + 1;
+		}
+
+		rangeQuery = new FenwickTreeRangeQueryPointUpdate(values);
+		rangeUpdate = new FenwickTreeRangeUpdatePointQuery(values);
+	}
+
+	private int next() {
+		int i = cursor;
+		if (++cursor == size)
+			cursor = 0;
+		return i;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public FenwickTreeRangeQueryPointUpdate rangeQueryConstruct() {
+		return new FenwickTreeRangeQueryPointUpdate(values);
+	}
+
+	@Benchmark
+	public long rangeQuerySum() {
+		int i = next();
+		return rangeQuery.sum(lefts[i], rights[i]);
+	}
+
+	@Benchmark
+	public void rangeQueryAdd() {
+		int i = next();
+		rangeQuery.add(lefts[i], 1);
+	}
+
+	@Benchmark
+	public void rangeUpdateUpdateRange() {
+		int i = next();
+		rangeUpdate.updateRange(lefts[i], rights[i], 1);
+	}
+
+	@Benchmark
+	public long rangeUpdateGet() {
+		return rangeUpdate.get(lefts[next()]);
+	}
+}
@@ -0,0 +1,197 @@
+package benchmarks;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import HashTable.HashTableDoubleHashing;
+import HashTable.HashTableGroupProbing;
+import HashTable.HashTableLinearProbing;
+import HashTable.HashTableQuadraticProbing;
+import HashTable.HashTableRobinHood;
+import HashTable.HashTableSeparateChaining;
+
+// insert and lookup throughput of the hash tables against java.util.HashMap
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HashTableBenchmark {
+
+	// the common surface of the tables under test
+	public interface Table {
+		Integer put(BenchKey key, Integer value);
+
+		Integer get(BenchKey key);
+
+		Integer remove(BenchKey key);
+
+		static Table of(BiFunction<BenchKey, Integer, Integer> put, Function<BenchKey, Integer> get,
+				Function<BenchKey, Integer> remove) {
+			return new Table() {
+				@Override
+				public Integer put(BenchKey key, Integer value) {
+					return put.apply(key, value);
+				}
+
+				@Override
+				public Integer get(BenchKey key) {
+					return get.apply(key);
+				}
+
+				@Override
+				public Integer remove(BenchKey key) {
+					return remove.apply(key);
+				}
+			};
+		}
+	}
+
+	public enum Impl {
+		LINEAR_PROBING {
+			@Override
+			Table create() {
+				HashTableLinearProbing<BenchKey, Integer> t = new HashTableLinearProbing<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		LINEAR_PROBING_INCREMENTAL {
+			@Override
+			Table create() {
+				HashTableLinearProbing<BenchKey, Integer> t = new HashTableLinearProbing<>(7, 0.65, false, true);
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		QUADRATIC_PROBING {
+			@Override
+			Table create() {
+				HashTableQuadraticProbing<BenchKey, Integer> t = new HashTableQuadraticProbing<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		DOUBLE_HASHING {
+			@Override
+			Table create() {
+				HashTableDoubleHashing<BenchKey, Integer> t = new HashTableDoubleHashing<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		GROUP_PROBING {
+			@Override
+			Table create() {
+				HashTableGroupProbing<BenchKey, Integer> t = new HashTableGroupProbing<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		ROBIN_HOOD {
+			@Override
+			Table create() {
+				HashTableRobinHood<BenchKey, Integer> t = new HashTableRobinHood<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		SEPARATE_CHAINING {
+			@Override
+			Table create() {
+				HashTableSeparateChaining<BenchKey, Integer> t = new HashTableSeparateChaining<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		},
+		JDK_HASHMAP {
+			@Override
+			Table create() {
+				HashMap<BenchKey, Integer> t = new HashMap<>();
+				return Table.of(t::put, t::get, t::remove);
+			}
+		};
+
+		abstract Table create();
+	}
+
+	@Param
+	public Impl impl;
+
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private BenchKey[] keys, lookups;
+	private Integer[] values;
+	private Table table;
+	private int cursor;
+
+	// the live keys of the churn benchmark, oldest first starting at 'cursor'
+	private BenchKey[] window;
+	private int nextKey;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		keys = BenchKey.of(distribution.keys(size, 42));
+		// the lookups follow the same distribution but are a different sample
+		lookups = BenchKey.of(distribution.keys(size, 7));
+		values = new Integer[size];
+		for (int i = 0; i < size; i++)
+			values[i] = i;
+
+		table = impl.create();
+		for (int i = 0; i < size; i++)
+			table.put(keys[i], values[i]);
+
+		window = new BenchKey[size];
+		for (int i = 0; i < size; i++)
+			window[i] = keys[i];
+		nextKey = size;
+	}
+
+	// builds a table from scratch out of all the keys
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Table insertAll() {
+		Table t = impl.create();
+		for (int i = 0; i < size; i++)
+			t.put(keys[i], values[i]);
+		return t;
+	}
+
+	// a single lookup, these hit or miss depending on the distribution
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Integer get() {
+		BenchKey key = lookups[cursor];
+		if (++cursor == size)
+			cursor = 0;
+		return table.get(key);
+	}
+
+	// a delete heavy workload such as a session cache: the oldest key is removed and a
+	// brand new one inserted, so the table keeps the same size while its keys turn over
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Integer churn() {
+		table.remove(window[cursor]);
+		BenchKey key = new BenchKey(nextKey++);
+		window[cursor] = key;
+		if (++cursor == size)
+			cursor = 0;
+		return table.put(key, cursor);
+	}
+}
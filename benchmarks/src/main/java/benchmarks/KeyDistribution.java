@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+
+// the key distributions the benchmarks are parameterized with. Every distribution
+// draws 'n' keys from the domain [0, n) so the tables see the same key space
+public enum KeyDistribution {
+
+	// every key is equally likely to be picked
+	UNIFORM {
+		@Override
+		public int[] keys(int n, long seed) {
+			SplittableRandom random = new SplittableRandom(seed);
+			int[] keys = new int[n];
+			for (int i = 0; i < n; i++)
+				keys[i] = random.nextInt(n);
+			return keys;
+		}
+	},
+
+	// a few hot keys get most of the traffic, see ZipfianGenerator
+	ZIPFIAN {
+		@Override
+		public int[] keys(int n, long seed) {
+			ZipfianGenerator zipf = new ZipfianGenerator(n, seed);
+			int[] keys = new int[n];
+			for (int i = 0; i < n; i++)
+				keys[i] = zipf.next();
+			return keys;
+		}
+	},
+
+	// the keys 0, 1, 2, ... n - 1 in order
+	SEQUENTIAL {
+		@Override
+		public int[] keys(int n, long seed) {
+			int[] keys = new int[n];
+			for (int i = 0; i < n; i++)
+				keys[i] = i;
+			return keys;
+		}
+	};
+
+	// generates 'n' keys in the range [0, n)
+	public abstract int[] keys(int n, long seed);
+
+	// a zipfian generator following "Quickly Generating Billion-Record Synthetic
+	// Databases" (Gray et al.), the same one YCSB uses. Item 0 is the most popular
+	// one. The popular items get scrambled over the domain so that they do not all
+	// end up next to each other in the tables
+	static final class ZipfianGenerator {
+
+		private static final double THETA = 0.99;
+
+		private final int n;
+		private final double alpha, zetaN, eta;
+		private final SplittableRandom random;
+
+		ZipfianGenerator(int n, long seed) {
+			this.n = n;
+			this.random = new SplittableRandom(seed);
+			double zeta2 = zeta(2);
+			zetaN = zeta(n);
+			alpha = 1.0 / (1.0 - THETA);
+			eta = (1 - Math.pow(2.0 / n, 1 - THETA)) / (1 - zeta2 / zetaN);
+		}
+
+		private static double zeta(int n) {
+			double sum = 0;
+			for (int i = 1; i <= n; i++)
+				sum += 1 / Math.pow(i, THETA);
+			return sum;
+		}
+
+		int next() {
+			double u = random.nextDouble();
+			double uz = u * zetaN;
+			int rank;
+			if (uz < 1.0)
+				rank = 0;
+			else if (uz < 1.0 + Math.pow(0.5, THETA))
+				rank = 1;
+			else
+				rank = (int) (n * Math.pow(eta * u - eta + 1, alpha));
+			rank = Math.min(rank, n - 1);
+
+			// scramble the rank so the hot keys are spread over the domain
+			long h = (rank + 1) * 0x9E3779B97F4A7C15L;
+			return (int) ((h ^ (h >>> 32)) & 0x7FFFFFFFL) % n;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package benchmarks;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import Queue.BoundedPQueue;
+import Queue.IndexedPriorityQueue;
+import Queue.LongObjPriorityQueue;
+import Queue.LongPriorityQueue;
+import Queue.PQueue;
+
+// PQueue, IndexedPriorityQueue and the primitive long queues against java.util.PriorityQueue
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PQueueBenchmark {
+
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private Integer[] elems;
+	private long[] longElems;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		int[] keys = distribution.keys(size, 42);
+		elems = new Integer[size];
+		longElems = new long[size];
+		for (int i = 0; i < size; i++) {
+			elems[i] = keys[i];
+			longElems[i] = keys[i];
+		}
+	}
+
+	// add every element one at a time and then poll them all
+	@Benchmark
+	public void pqueueAddPoll(Blackhole bh) {
+		PQueue<Integer> pq = new PQueue<>(size);
+		for (Integer elem : elems)
+			pq.add(elem);
+		while (!pq.isEmpty())
+			bh.consume(pq.poll());
+	}
+
+	@Benchmark
+	public void jdkAddPoll(Blackhole bh) {
+		PriorityQueue<Integer> pq = new PriorityQueue<>(size);
+		for (Integer elem : elems)
+			pq.add(elem);
+		while (!pq.isEmpty())
+			bh.consume(pq.poll());
+	}
+
+	@Benchmark
+	public void longAddPoll(Blackhole bh) {
+		LongPriorityQueue pq = new LongPriorityQueue(size);
+		for (long elem : longElems)
+			pq.add(elem);
+		while (!pq.isEmpty())
+			bh.consume(pq.poll());
+	}
+
+	@Benchmark
+	public void longObjAddPoll(Blackhole bh) {
+		LongObjPriorityQueue<Integer> pq = new LongObjPriorityQueue<>(size);
+		for (int i = 0; i < size; i++)
+			pq.add(longElems[i], elems[i]);
+		while (!pq.isEmpty())
+			bh.consume(pq.poll());
+	}
+
+	@Benchmark
+	public void indexedAddPoll(Blackhole bh) {
+		IndexedPriorityQueue<Integer> pq = new IndexedPriorityQueue<>(size);
+		for (int i = 0; i < size; i++)
+			pq.add(i, elems[i]);
+		while (!pq.isEmpty())
+			bh.consume(pq.pollMinKeyIndex());
+	}
+
+	// lowering the priority of every element once, as Dijkstra does when it relaxes edges.
+	// PQueue has to remove the element and add it back
+	@Benchmark
+	public void pqueueDecreaseKey(Blackhole bh) {
+		PQueue<Integer> pq = new PQueue<>(size);
+		for (Integer elem : elems)
+			pq.add(elem);
+		for (Integer elem : elems) {
+			pq.remove(elem);
+			pq.add(elem - size);
+		}
+		bh.consume(pq.peek());
+	}
+
+	@Benchmark
+	public void indexedDecreaseKey(Blackhole bh) {
+		IndexedPriorityQueue<Integer> pq = new IndexedPriorityQueue<>(size);
+		for (int i = 0; i < size; i++)
+			pq.add(i, elems[i]);
+		for (int i = 0; i < size; i++)
+			pq.decreaseKey(i, elems[i] - size);
+		bh.consume(pq.peekMinKeyIndex());
+	}
+
+	// keeping the 100 largest elements, a full PQueue has to hold them all and poll
+	// the smallest ones away
+	@Benchmark
+	public void pqueueTopK(Blackhole bh) {
+		PQueue<Integer> pq = new PQueue<>(size);
+		for (Integer elem : elems)
+			pq.add(elem);
+		while (pq.size() > 100)
+			pq.poll();
+		while (!pq.isEmpty())
+			bh.consume(pq.poll());
+	}
+
+	@Benchmark
+	public void boundedTopK(Blackhole bh) {
+		BoundedPQueue<Integer> pq = new BoundedPQueue<>(100);
+		for (Integer elem : elems)
+			pq.offer(elem);
+		bh.consume(pq.drainSorted());
+	}
+
+	// O(n) heapify construction
+	@Benchmark
+	public PQueue<Integer> pqueueHeapify() {
+		return new PQueue<>(elems.clone());
+	}
+
+	@Benchmark
+	public LongPriorityQueue longHeapify() {
+		return new LongPriorityQueue(longElems);
+	}
+}
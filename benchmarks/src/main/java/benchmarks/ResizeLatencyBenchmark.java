@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// the latency distribution of single puts into a growing table, the resizes show up
+// in the high percentiles. A fresh table is started every 'size' keys so that every
+// iteration goes through the same resizes
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResizeLatencyBenchmark {
+
+	@Param({ "LINEAR_PROBING", "LINEAR_PROBING_INCREMENTAL", "JDK_HASHMAP" })
+	public HashTableBenchmark.Impl impl;
+
+	@Param({ "1000000" })
+	public int size;
+
+	private BenchKey[] keys;
+	private HashTableBenchmark.Table table;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		keys = BenchKey.of(KeyDistribution.UNIFORM.keys(size, 42));
+		table = impl.create();
+	}
+
+	@Benchmark
+	public Integer put() {
+		if (cursor == size) {
+			table = impl.create();
+			cursor = 0;
+		}
+		BenchKey key = keys[cursor];
+		return table.put(key, cursor++);
+	}
+}
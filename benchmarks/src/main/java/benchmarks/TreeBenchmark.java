@@ -0,0 +1,126 @@
+package benchmarks;
+
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import BalancedBinaryTree.AVLTreeRecursive;
+import BinarySearchTree.BinarySearchTree;
+
+// AVLTreeRecursive and the unbalanced BinarySearchTree against java.util.TreeMap
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xss256m")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TreeBenchmark {
+
+	public enum Impl {
+		AVL, BST, JDK_TREEMAP
+	}
+
+	@Param
+	public Impl impl;
+
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private Integer[] keys, lookups;
+	private AVLTreeRecursive<Integer> avl;
+	private BinarySearchTree<Integer> bst;
+	private TreeMap<Integer, Integer> treeMap;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// sequential keys turn the unbalanced tree into a linked list
+		// and its inserts into O(n^2) work, skip the hopeless sizes
+		if (impl == Impl.BST && distribution == KeyDistribution.SEQUENTIAL && size > 100_000)
+			throw new IllegalStateException("BST degenerates into a list with sequential keys");
+
+		keys = box(distribution.keys(size, 42));
+		lookups = box(distribution.keys(size, 7));
+		avl = null;
+		bst = null;
+		treeMap = null;
+		switch (impl) {
+		case AVL:
+			avl = new AVLTreeRecursive<>();
+			for (Integer key : keys)
+				avl.insert(key);
+			break;
+		case BST:
+			bst = new BinarySearchTree<>();
+			for (Integer key : keys)
+				bst.add(key);
+			break;
+		case JDK_TREEMAP:
+			treeMap = new TreeMap<>();
+			for (Integer key : keys)
+				treeMap.put(key, key);
+			break;
+		}
+	}
+
+	private static Integer[] box(int[] values) {
+		Integer[] boxed = new Integer[values.length];
+		for (int i = 0; i < values.length; i++)
+			boxed[i] = values[i];
+		return boxed;
+	}
+
+	// builds a tree from scratch out of all the keys
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object insertAll() {
+		switch (impl) {
+		case AVL:
+			AVLTreeRecursive<Integer> a = new AVLTreeRecursive<>();
+			for (Integer key : keys)
+				a.insert(key);
+			return a;
+		case BST:
+			BinarySearchTree<Integer> b = new BinarySearchTree<>();
+			for (Integer key : keys)
+				b.add(key);
+			return b;
+		default:
+			TreeMap<Integer, Integer> t = new TreeMap<>();
+			for (Integer key : keys)
+				t.put(key, key);
+			return t;
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public boolean contains() {
+		Integer key = lookups[cursor];
+		if (++cursor == size)
+			cursor = 0;
+		switch (impl) {
+		case AVL:
+			return avl.contains(key);
+		case BST:
+			return bst.contains(key);
+		default:
+			return treeMap.containsKey(key);
+		}
+	}
+}
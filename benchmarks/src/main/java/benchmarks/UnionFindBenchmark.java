@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UnionFind.ConcurrentUnionFind;
+import UnionFind.UnionFind;
+
+// unifying 'size' edges whose end points follow the distribution,
+// followed by find queries on the resulting forest. ConcurrentUnionFind
+// unifies the same edges in one thread and spread over the common pool
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class UnionFindBenchmark {
+
+	@Param({ "1000", "100000", "1000000", "10000000" })
+	public int size;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private int[] p, q;
+	private UnionFind unionFind;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		p = distribution.keys(size, 42);
+		// the other end point is always uniform, otherwise sequential
+		// edges would only ever link every node to itself
+		q = KeyDistribution.UNIFORM.keys(size, 7);
+
+		unionFind = new UnionFind(size);
+		for (int i = 0; i < size; i++)
+			unionFind.unify(p[i], q[i]);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public UnionFind unifyAll() {
+		UnionFind uf = new UnionFind(size);
+		for (int i = 0; i < size; i++)
+			uf.unify(p[i], q[i]);
+		return uf;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public ConcurrentUnionFind concurrentUnifyAll() {
+		ConcurrentUnionFind uf = new ConcurrentUnionFind(size);
+		uf.unifyAll(p, q);
+		return uf;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public ConcurrentUnionFind concurrentUnifyAllParallel() {
+		ConcurrentUnionFind uf = new ConcurrentUnionFind(size);
+		uf.unifyAll(p, q, ForkJoinPool.commonPool());
+		return uf;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public int find() {
+		int i = cursor;
+		if (++cursor == size)
+			cursor = 0;
+		return unionFind.find(p[i]);
+	}
+}